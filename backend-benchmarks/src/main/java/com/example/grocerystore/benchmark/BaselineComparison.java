@@ -0,0 +1,106 @@
+package com.example.grocerystore.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file against the baseline and exits with status 1 when a
+ * benchmark got slower, or allocates more per operation, by more than the tolerance.
+ * Benchmarks missing from the baseline are listed but never fail the comparison.
+ *
+ * Run with: java -cp target/benchmarks.jar com.example.grocerystore.benchmark.BaselineComparison
+ *   baseline/results.json results.json [tolerance-percent, default 10]
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [tolerance-percent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            if (before == null) {
+                System.out.printf("NEW        %s %s%n", entry.getKey(), describe(after.path("primaryMetric")));
+                continue;
+            }
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = change(before.path("primaryMetric"), after.path("primaryMetric"), higherIsBetter);
+            double allocationChange = change(allocation(before), allocation(after), false);
+            boolean regressed = change > tolerance || allocationChange > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s %s -> %s (%+.1f%% time, %+.1f%% alloc)%n", regressed ? "REGRESSED" : "OK",
+                    entry.getKey(), describe(before.path("primaryMetric")), describe(after.path("primaryMetric")),
+                    change * 100, allocationChange * 100);
+        }
+        System.out.printf("%d of %d benchmarks regressed by more than %.0f%%%n",
+                regressions, current.size(), tolerance * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Results keyed by benchmark, mode and parameters.
+     */
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            results.put(result.path("benchmark").asText() + " [" + result.path("mode").asText() + "]"
+                    + (params.isEmpty() ? "" : " " + params), result);
+        }
+        return results;
+    }
+
+    /**
+     * Relative change where a positive value is always worse; 0 when either side is missing.
+     */
+    private static double change(JsonNode before, JsonNode after, boolean higherIsBetter) {
+        if (!before.has("score") || !after.has("score") || before.path("score").asDouble() == 0) {
+            return 0;
+        }
+        double relative = (after.path("score").asDouble() - before.path("score").asDouble())
+                / before.path("score").asDouble();
+        return higherIsBetter ? -relative : relative;
+    }
+
+    private static JsonNode allocation(JsonNode result) {
+        // Older JMH versions prefix secondary metric names with a middle dot
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOCATION)) {
+                return metric.getValue();
+            }
+        }
+        return result.path("secondaryMetrics").path(ALLOCATION);
+    }
+
+    private static String describe(JsonNode metric) {
+        return String.format("%.3f %s", metric.path("score").asDouble(), metric.path("scoreUnit").asText());
+    }
+}
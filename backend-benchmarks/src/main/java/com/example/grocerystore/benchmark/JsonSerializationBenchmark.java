@@ -0,0 +1,119 @@
+package com.example.grocerystore.benchmark;
+
+import com.example.grocerystore.dto.OrderHistoryPage;
+import com.example.grocerystore.dto.OrderItemResponse;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of JSON serialization of the bodies the API returns most:
+ * a product, a product page, the full catalog listing, an order and an order history page.
+ * Orders are serialized as OrderResponse, as the controllers send them; the Order entity
+ * itself is never written to JSON. The mapper is configured like Spring Boot's.
+ *
+ * Run with: java -jar target/benchmarks.jar JsonSerializationBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int CATALOG_SIZE = 1000;
+    private static final int ITEMS_PER_ORDER = 10;
+
+    private ObjectMapper objectMapper;
+    private Product product;
+    private List<Product> productPage;
+    private List<Product> catalog;
+    private OrderResponse order;
+    private OrderHistoryPage historyPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        catalog = new ArrayList<>(CATALOG_SIZE);
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            catalog.add(new Product(id, "Organic Product " + id, 1.25 + id % 40, (int) (id % 500)));
+        }
+        product = catalog.get(0);
+        productPage = catalog.subList(0, PAGE_SIZE);
+
+        List<OrderResponse> orders = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime orderDate = LocalDateTime.of(2025, 7, 28, 15, 55, 11);
+        for (long orderId = 1; orderId <= PAGE_SIZE; orderId++) {
+            List<OrderItemResponse> items = new ArrayList<>(ITEMS_PER_ORDER);
+            double total = 0;
+            for (int line = 0; line < ITEMS_PER_ORDER; line++) {
+                Product lineProduct = catalog.get((int) (orderId * ITEMS_PER_ORDER + line) % CATALOG_SIZE);
+                items.add(new OrderItemResponse(orderId, orderId * 100 + line, lineProduct.getId(),
+                        lineProduct.getName(), 2, lineProduct.getPrice()));
+                total += 2 * lineProduct.getPrice();
+            }
+            orders.add(new OrderResponse(orderId, orderDate.minusHours(orderId), total, items));
+        }
+        order = orders.get(0);
+        historyPage = new OrderHistoryPage(orders, "MjAyNS0wNy0yOFQxNTo1NToxMXwy");
+    }
+
+    @Benchmark
+    public byte[] product() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] catalog() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] order() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] orderHistoryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(historyPage);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
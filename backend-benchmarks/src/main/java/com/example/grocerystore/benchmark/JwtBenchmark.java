@@ -0,0 +1,113 @@
+package com.example.grocerystore.benchmark;
+
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.model.User;
+import com.example.grocerystore.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of JwtUtil.
+ * {@code parse} is a full verification (base64, JSON, HMAC); {@code validate} is the
+ * path taken per request, served from the verified-token cache after the first call.
+ * {@code legacyThreeParses} reproduces the old filter (new key and parser per call,
+ * three parses) as a reference point.
+ *
+ * Run with: java -jar target/benchmarks.jar JwtBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil();
+        user = user();
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parse() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims validate() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String legacyThreeParses() {
+        String username = legacyParse().getSubject();
+        String again = legacyParse().getSubject();
+        boolean expired = legacyParse().getExpiration().before(new Date());
+        return expired ? null : username + again;
+    }
+
+    private Claims legacyParse() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+        user.setRoles(Collections.singleton(new Role(1L, "ROLE_USER")));
+        user.setTokenVersion(0);
+        return user;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.grocerystore.benchmark;
+
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of catalog search over 10k, 100k and 1M generated product names.
+ * {@code substring}, {@code shortQuery} and {@code typo} go through the trigram index
+ * (exact, short-query scan and fuzzy fallback); {@code linearScan} is the plain
+ * lowercase-contains loop the index replaced, as a reference point.
+ *
+ * Run with: java -jar target/benchmarks.jar ProductSearchBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final String[] ADJECTIVES = {
+            "Organic", "Fresh", "Frozen", "Smoked", "Wholegrain", "Low Fat", "Free Range", "Spiced",
+            "Sweet", "Roasted", "Dried", "Salted", "Classic", "Premium", "Local", "Wild"};
+    private static final String[] NOUNS = {
+            "Apples", "Bananas", "Carrots", "Cheddar", "Chicken", "Coffee", "Granola", "Honey",
+            "Lentils", "Mango", "Oats", "Pasta", "Peppers", "Salmon", "Spinach", "Tomatoes", "Yogurt"};
+    private static final String[] PACKS = {"500g", "1kg", "6 pack", "Family Size", "Bunch", "Jar", "Tin"};
+
+    @Param({"10000", "100000", "1000000"})
+    public int catalogSize;
+
+    private ProductSearchIndex index;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        products = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " "
+                    + PACKS[random.nextInt(PACKS.length)] + " #" + id;
+            products.add(new Product(id, name, 1.0 + random.nextInt(2000) / 100.0, random.nextInt(500)));
+        }
+        index = ProductSearchIndex.build(products);
+    }
+
+    @Benchmark
+    public List<Product> substring() {
+        return index.search("smoked salmon");
+    }
+
+    @Benchmark
+    public List<Product> shortQuery() {
+        return index.search("ho");
+    }
+
+    @Benchmark
+    public List<Product> typo() {
+        return index.search("chedar famly");
+    }
+
+    @Benchmark
+    public List<Product> linearScan() {
+        String needle = "smoked salmon";
+        List<Product> matches = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getName().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(product);
+            }
+        }
+        return matches;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.grocerystore.benchmark;
+
+import com.example.grocerystore.security.RateLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH benchmark of the rate limit filter's per-request overhead.
+ * {@code noFilter} is the bare mock chain; {@code distinctClients} gives every
+ * thread its own IP; {@code sharedClient} makes all threads contend on one bucket.
+ * Limits are set high enough that every request is admitted.
+ *
+ * Run with: java -jar target/benchmarks.jar RateLimitFilterBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+    private RateLimitFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitFilter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "ipCapacity", Integer.MAX_VALUE / 2);
+        ReflectionTestUtils.setField(filter, "ipPerSecond", 1e9);
+        ReflectionTestUtils.invokeMethod(filter, "init");
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        MockHttpServletRequest ownIp;
+        MockHttpServletRequest sharedIp;
+
+        @Setup
+        public void setUp() {
+            ownIp = new MockHttpServletRequest("GET", "/api/products");
+            ownIp.setRemoteAddr("10.0." + CLIENTS.incrementAndGet() + ".1");
+            sharedIp = new MockHttpServletRequest("GET", "/api/products");
+            sharedIp.setRemoteAddr("10.1.1.1");
+        }
+    }
+
+    @Benchmark
+    public Object noFilter(Client client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain().doFilter(client.ownIp, response);
+        return response;
+    }
+
+    @Benchmark
+    public Object distinctClients(Client client) throws Exception {
+        return run(client.ownIp);
+    }
+
+    @Benchmark
+    public Object sharedClient(Client client) throws Exception {
+        return run(client.sharedIp);
+    }
+
+    private Object run(MockHttpServletRequest request) throws Exception {
+        // OncePerRequestFilter marks the request as filtered; clear it so each call is measured
+        request.clearAttributes();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitFilterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.OrderRequest;
+import com.example.grocerystore.model.Order;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the order building and total computation in OrderService.createOrder,
+ * without the stock reservation and persistence around it. Every fifth line is on flash sale.
+ * Lives in the service package to reach the package-private OrderService.buildOrder.
+ *
+ * Run with: java -jar target/benchmarks.jar OrderTotalBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private User user;
+    private List<OrderRequest.OrderItemRequest> itemRequests;
+    private Map<Long, Product> products;
+    private Map<Long, Long> flashRunIds;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        itemRequests = new ArrayList<>(lines);
+        products = new HashMap<>();
+        flashRunIds = new HashMap<>();
+        for (long id = 1; id <= lines; id++) {
+            OrderRequest.OrderItemRequest itemRequest = new OrderRequest.OrderItemRequest();
+            itemRequest.setProductId(id);
+            itemRequest.setQuantity((int) (id % 5) + 1);
+            itemRequests.add(itemRequest);
+            products.put(id, new Product(id, "Product " + id, 0.99 + id, 1000));
+            if (id % 5 == 0) {
+                flashRunIds.put(id, id * 10);
+            }
+        }
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return OrderService.buildOrder(user, itemRequests, products, flashRunIds);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderTotalBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
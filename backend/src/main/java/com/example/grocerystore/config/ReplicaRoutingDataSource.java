@@ -0,0 +1,116 @@
+package com.example.grocerystore.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary.
+ * A user whose read-write transaction committed within the sticky window reads from the
+ * primary, so they always see their own writes despite replication lag. Until the
+ * application is ready (schema creation, seeding, cache warm-up) all traffic uses the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy, so the connection is chosen only after
+ * the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final long stickyWindowMs;
+    private final int maxStickyUsers;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile boolean replicaEnabled;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long stickyWindowMs, int maxStickyUsers) {
+        this.stickyWindowMs = stickyWindowMs;
+        this.maxStickyUsers = maxStickyUsers;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Run the work with every connection taken from the primary, e.g. reads that must not lag.
+     * Has no effect when no replica is configured.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            }
+        }
+    }
+
+    /**
+     * Start routing read-only transactions to the replica.
+     */
+    public void enableReplica() {
+        replicaEnabled = true;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            rememberWriteOnCommit();
+            return PRIMARY;
+        }
+        if (!replicaEnabled || FORCE_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+        String user = currentUser();
+        return user != null && wroteRecently(user, System.currentTimeMillis()) ? PRIMARY : REPLICA;
+    }
+
+    boolean wroteRecently(String user, long now) {
+        Long writtenAt = lastWrites.get(user);
+        return writtenAt != null && now - writtenAt <= stickyWindowMs;
+    }
+
+    void recordWrite(String user, long now) {
+        if (lastWrites.size() >= maxStickyUsers) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > stickyWindowMs);
+        }
+        lastWrites.put(user, now);
+    }
+
+    private void rememberWriteOnCommit() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(user, System.currentTimeMillis());
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
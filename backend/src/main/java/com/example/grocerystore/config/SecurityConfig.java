@@ -1,7 +1,11 @@
 package com.example.grocerystore.config;
 
+import com.example.grocerystore.security.BoundedPasswordEncoder;
 import com.example.grocerystore.security.JwtRequestFilter;
+import com.example.grocerystore.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,7 +15,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -30,10 +33,18 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtRequestFilter jwtRequestFilter;
+    private final RateLimitFilter rateLimitFilter;
 
+    /**
+     * BCrypt on a dedicated bounded executor, so hashing bursts cannot take over request threads.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                                 @Value("${auth.hashing.threads:0}") int threads,
+                                                 @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${auth.hashing.timeout-ms:5000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, timeoutMs, meterRegistry);
     }
 
     @Bean
@@ -49,10 +60,12 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/products/search").permitAll()
+                .requestMatchers("/api/products/suggest").permitAll()
                 .requestMatchers("/api/products").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 // Admin endpoints
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // User endpoints
                 .requestMatchers("/api/orders/**").hasRole("USER")
                 // All other requests need authentication
@@ -62,6 +75,8 @@ public class SecurityConfig {
             .headers(headers -> headers.frameOptions().disable()); // For H2 console
 
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // After the JWT filter so authenticated callers are limited per user rather than per IP
+        http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
 
         return http.build();
     }
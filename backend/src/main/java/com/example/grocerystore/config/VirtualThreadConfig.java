@@ -0,0 +1,36 @@
+package com.example.grocerystore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for virtual-thread mode ({@code spring.threads.virtual.enabled=true}).
+ * In this mode Spring Boot already runs Tomcat requests, @Async tasks and scheduled
+ * jobs on virtual threads. This class adds a guard to every Hikari pool, so that
+ * thousands of request threads cannot all contend for a handful of connections at once.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    /** Hikari's maximum-pool-size when none is configured; it is applied only once the pool starts. */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int poolSize = dataSource.getMaximumPoolSize() > 0 ? dataSource.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                    return new ConnectionLimitingDataSource(dataSource, poolSize, dataSource.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.grocerystore.controller;
+
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller for admin order endpoints.
+ */
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminOrderController {
+
+    private final OrderService orderService;
+
+    /**
+     * Get the newest orders of all customers.
+     */
+    @GetMapping("/recent")
+    public ResponseEntity<?> getRecentOrders(@RequestParam(defaultValue = "50") int limit) {
+        try {
+            List<OrderResponse> orders = orderService.getRecentOrders(limit);
+            return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Move all of a user's orders to another shard and keep them there.
+     */
+    @PostMapping("/shards/move")
+    public ResponseEntity<?> moveUserOrders(@RequestParam Long userId, @RequestParam int shard) {
+        try {
+            int moved = orderService.moveUserOrders(userId, shard);
+            return ResponseEntity.ok("Moved " + moved + " orders to shard " + shard);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body("Failed to move orders: " + e.getMessage());
+        }
+    }
+}
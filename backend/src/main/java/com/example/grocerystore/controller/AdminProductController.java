@@ -1,7 +1,10 @@
 package com.example.grocerystore.controller;
 
+import com.example.grocerystore.dto.FlashSaleStatus;
 import com.example.grocerystore.model.Product;
+import com.example.grocerystore.service.FlashSaleService;
 import com.example.grocerystore.service.ProductService;
+import com.example.grocerystore.service.ProductSort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +23,7 @@ import java.util.List;
 public class AdminProductController {
 
     private final ProductService productService;
+    private final FlashSaleService flashSaleService;
 
     /**
      * Get all products (Admin view).
@@ -30,6 +34,20 @@ public class AdminProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Get one page of products from the database (Admin view).
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getProductPage(@RequestParam int limit,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "id") String sort) {
+        try {
+            return ResponseEntity.ok(productService.getProductPageFromDatabase(ProductSort.fromParam(sort), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid page request: " + e.getMessage());
+        }
+    }
+
     /**
      * Create a new product.
      */
@@ -68,4 +86,25 @@ public class AdminProductController {
             return ResponseEntity.badRequest().body("Failed to delete product: " + e.getMessage());
         }
     }
+
+    /**
+     * Get the flash sale state of a product.
+     */
+    @GetMapping("/{id}/flash-sale")
+    public ResponseEntity<FlashSaleStatus> getFlashSale(@PathVariable Long id) {
+        return ResponseEntity.ok(flashSaleService.status(id));
+    }
+
+    /**
+     * Turn flash sale mode on or off for a product.
+     */
+    @PutMapping("/{id}/flash-sale")
+    public ResponseEntity<?> setFlashSale(@PathVariable Long id, @RequestParam boolean enabled) {
+        try {
+            FlashSaleStatus status = enabled ? flashSaleService.start(id) : flashSaleService.stop(id);
+            return ResponseEntity.ok(status);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to update flash sale: " + e.getMessage());
+        }
+    }
 }
@@ -1,16 +1,15 @@
 package com.example.grocerystore.controller;
 
-import com.example.grocerystore.dto.UserResponse;
-import com.example.grocerystore.model.User;
+import com.example.grocerystore.dto.UserImportResult;
+import com.example.grocerystore.dto.UserSearchPage;
+import com.example.grocerystore.service.UserImportService;
 import com.example.grocerystore.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * Controller for admin user management endpoints.
  */
@@ -22,25 +21,37 @@ import java.util.stream.Collectors;
 public class AdminUserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     /**
-     * Search users by name.
+     * Search users by name, last name, email or contact number prefix, one page at a time.
+     * {@code name} is accepted as the old name of {@code q}.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
-        
-        // Convert to DTO to hide password
-        List<UserResponse> userResponses = users.stream()
-                .map(user -> new UserResponse(
-                    user.getId(),
-                    user.getName(),
-                    user.getEmail(),
-                    user.getAddress(),
-                    user.getContactNumber()
-                ))
-                .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(userResponses);
+    public ResponseEntity<?> searchUsers(@RequestParam(required = false) String q,
+                                         @RequestParam(required = false) String name,
+                                         @RequestParam(required = false) Long after,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            UserSearchPage page = userService.searchUsers(q != null ? q : name, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid search request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bulk import customers from the legacy system.
+     * The body is a JSON array or newline-delimited JSON of users and is read as a stream.
+     * An import that stops early still reports what was committed before it stopped.
+     */
+    @PostMapping(value = "/import", consumes = {"application/json", "application/x-ndjson"})
+    public ResponseEntity<?> importUsers(HttpServletRequest request) {
+        try {
+            UserImportResult result = userImportService.importUsers(request.getInputStream());
+            return result.getAbortReason() == null ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to import users: " + e.getMessage());
+        }
     }
 }
@@ -4,14 +4,19 @@ import com.example.grocerystore.dto.AuthResponse;
 import com.example.grocerystore.dto.LoginRequest;
 import com.example.grocerystore.dto.RegisterRequest;
 import com.example.grocerystore.model.User;
+import com.example.grocerystore.security.AuthRateLimiter;
 import com.example.grocerystore.security.JwtUtil;
+import com.example.grocerystore.security.PasswordHashingBusyException;
+import com.example.grocerystore.service.EmailAlreadyRegisteredException;
 import com.example.grocerystore.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -26,12 +31,16 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final AuthRateLimiter authRateLimiter;
 
     /**
      * Register a new user.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public ResponseEntity<?> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        if (!authRateLimiter.tryAcquire(httpRequest.getRemoteAddr(), request.getEmail())) {
+            return tooManyRequests("Registration failed: too many attempts, please retry later");
+        }
         try {
             User user = new User();
             user.setName(request.getName());
@@ -40,9 +49,13 @@ public class AuthController {
             user.setAddress(request.getAddress());
             user.setContactNumber(request.getContactNumber());
 
-            User savedUser = userService.registerUser(user);
-            
+            userService.registerUser(user);
+
             return ResponseEntity.ok("User registered successfully");
+        } catch (EmailAlreadyRegisteredException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Registration failed: " + e.getMessage());
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests("Registration failed: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
@@ -52,22 +65,32 @@ public class AuthController {
      * Authenticate user and return JWT token.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        if (!authRateLimiter.tryAcquire(httpRequest.getRemoteAddr(), request.getEmail())) {
+            return tooManyRequests("Login failed: too many attempts, please retry later");
+        }
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
             );
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
-
-            User user = userService.findByEmail(request.getEmail());
+            // The principal is the User loaded during authentication, roles included
+            User user = (User) authentication.getPrincipal();
+            String token = jwtUtil.generateToken(user);
             String role = user.getRoles().iterator().next().getName();
 
             AuthResponse response = new AuthResponse(token, user.getEmail(), user.getName(), role);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests("Login failed: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Login failed: Invalid credentials");
         }
     }
+
+    private static ResponseEntity<String> tooManyRequests(String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(message);
+    }
 }
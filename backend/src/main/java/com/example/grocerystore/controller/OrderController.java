@@ -1,17 +1,23 @@
 package com.example.grocerystore.controller;
 
+import com.example.grocerystore.dto.OrderHistoryPage;
+import com.example.grocerystore.dto.OrderIngestionStatus;
 import com.example.grocerystore.dto.OrderRequest;
-import com.example.grocerystore.model.Order;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.service.IdempotencyKeyReusedException;
+import com.example.grocerystore.service.OrderIdempotencyService;
+import com.example.grocerystore.service.OrderIngestionBusyException;
+import com.example.grocerystore.service.OrderIngestionService;
 import com.example.grocerystore.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * Controller for order-related endpoints.
  */
@@ -23,33 +29,67 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIngestionService orderIngestionService;
+    private final OrderIdempotencyService orderIdempotencyService;
 
     /**
-     * Place a new order.
+     * Place a new order. Retries carrying the same Idempotency-Key return the original order.
+     * Keyed requests are always placed synchronously, also when asynchronous ingestion is on,
+     * because the queue has no record of keys to deduplicate against. Reusing a key for a
+     * different basket is answered with 422.
      */
     @PostMapping
-    public ResponseEntity<?> placeOrder(@RequestBody OrderRequest orderRequest) {
+    public ResponseEntity<?> placeOrder(@RequestBody OrderRequest orderRequest,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String userEmail = authentication.getName();
             
-            Order order = orderService.createOrder(orderRequest, userEmail);
+            if (idempotencyKey == null && orderIngestionService.isEnabled()) {
+                OrderIngestionStatus status = orderIngestionService.submit(orderRequest, userEmail);
+                return ResponseEntity.accepted().body(status);
+            }
+            OrderResponse order = idempotencyKey == null
+                    ? orderService.createOrder(orderRequest, userEmail)
+                    : orderIdempotencyService.placeOrder(orderRequest, userEmail, idempotencyKey);
             return ResponseEntity.ok(order);
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("Failed to place order: " + e.getMessage());
+        } catch (OrderIngestionBusyException e) {
+            return ResponseEntity.status(503).body("Failed to place order: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to place order: " + e.getMessage());
         }
     }
 
     /**
-     * Get order history for the authenticated user.
+     * Get the status of an order accepted by the asynchronous ingestion pipeline.
+     */
+    @GetMapping("/ingestion/{reference}")
+    public ResponseEntity<?> getIngestionStatus(@PathVariable String reference) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return ResponseEntity.ok(orderIngestionService.getStatus(reference, authentication.getName()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to get order status: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get one page of order history for the authenticated user, newest first.
      */
     @GetMapping("/my-history")
-    public ResponseEntity<List<Order>> getOrderHistory() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userEmail = authentication.getName();
-        
-        List<Order> orders = orderService.getOrderHistory(userEmail);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getOrderHistory(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String userEmail = authentication.getName();
+
+            OrderHistoryPage page = orderService.getOrderHistory(userEmail, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid page request: " + e.getMessage());
+        }
     }
 
     /**
@@ -58,17 +98,14 @@ public class OrderController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getOrderById(@PathVariable Long id) {
         try {
-            Order order = orderService.getOrderById(id);
-            
             // Ensure user can only access their own orders
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String userEmail = authentication.getName();
             
-            if (!order.getUser().getEmail().equals(userEmail)) {
-                return ResponseEntity.status(403).body("Access denied");
-            }
-            
+            OrderResponse order = orderService.getOrderById(id, userEmail);
             return ResponseEntity.ok(order);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(403).body("Access denied");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to get order: " + e.getMessage());
         }
@@ -1,8 +1,15 @@
 package com.example.grocerystore.controller;
 
 import com.example.grocerystore.model.Product;
+import com.example.grocerystore.service.CatalogResponseCache;
+import com.example.grocerystore.service.EncodedResponse;
 import com.example.grocerystore.service.ProductService;
+import com.example.grocerystore.service.ProductSort;
+import com.example.grocerystore.service.TaggedProduct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,25 +24,45 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
     private final ProductService productService;
+    private final CatalogResponseCache catalogResponseCache;
 
     /**
-     * Get all products.
+     * Get all products as pre-serialized JSON (gzip when accepted).
+     * Answers 304 when If-None-Match carries the current catalog tag.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return encoded(catalogResponseCache.allProducts(), acceptEncoding);
     }
 
     /**
-     * Get product by ID.
+     * Get one page of products; pass the returned {@code next} value as {@code cursor} for the following page.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getProductPage(@RequestParam int limit,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "id") String sort,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            return encoded(catalogResponseCache.page(ProductSort.fromParam(sort), cursor, limit), acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid page request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get product by ID. Answers 304 when If-None-Match carries the product's current tag.
      */
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         try {
-            Product product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            TaggedProduct tagged = productService.getTaggedProduct(id);
+            return revalidated(tagged.getETag(), tagged.getProduct());
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -49,4 +76,55 @@ public class ProductController {
         List<Product> products = productService.searchProductsByName(name);
         return ResponseEntity.ok(products);
     }
+
+    /**
+     * Autocomplete product names for the search box.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Product>> suggestProducts(@RequestParam String prefix,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        List<Product> products = productService.suggestProducts(prefix, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Tag a catalog response so clients revalidate it; Spring turns a matching
+     * If-None-Match into 304 Not Modified without serializing the body.
+     */
+    private static <T> ResponseEntity<T> revalidated(String etag, T body) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(body);
+    }
+
+    /**
+     * Write cached bytes as-is; byte[] bodies bypass Jackson entirely.
+     * The gzip variant has different bytes, so it gets its own strong tag.
+     */
+    private static ResponseEntity<byte[]> encoded(EncodedResponse response, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(gzip ? response.getETag() + GZIP_ETAG_SUFFIX : response.getETag())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.getGzip());
+        }
+        return builder.body(response.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.grocerystore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO describing a product's flash sale state: units left across all instances,
+ * and units held in the counter of the instance that answered.
+ */
+@Data
+@AllArgsConstructor
+public class FlashSaleStatus {
+    private Long productId;
+    private boolean active;
+    private long available;
+    private long held;
+}
@@ -0,0 +1,17 @@
+package com.example.grocerystore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a customer's order history, newest first.
+ * {@code next} is the cursor for the following page, or null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class OrderHistoryPage {
+    private List<OrderResponse> items;
+    private String next;
+}
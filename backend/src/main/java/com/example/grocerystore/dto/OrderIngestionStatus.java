@@ -0,0 +1,23 @@
+package com.example.grocerystore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO reporting the progress of an order accepted by the asynchronous ingestion pipeline.
+ */
+@Data
+@AllArgsConstructor
+public class OrderIngestionStatus {
+
+    public enum State {
+        PENDING,
+        CONFIRMED,
+        REJECTED
+    }
+
+    private String reference;
+    private State state;
+    private Long orderId;
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.example.grocerystore.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one line of an order, carrying the product name instead of the product entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemResponse {
+    @JsonIgnore
+    private Long orderId;
+    private Long id;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private Double price;
+}
@@ -0,0 +1,31 @@
+package com.example.grocerystore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for an order returned to its customer, without the user or product entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResponse {
+    private Long id;
+    private LocalDateTime orderDate;
+    private Double totalAmount;
+    private List<OrderItemResponse> orderItems = new ArrayList<>();
+
+    /**
+     * Constructor used by JPQL projections; items are attached afterwards.
+     */
+    public OrderResponse(Long id, LocalDateTime orderDate, Double totalAmount) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+    }
+}
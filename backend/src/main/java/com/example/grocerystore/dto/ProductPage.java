@@ -0,0 +1,18 @@
+package com.example.grocerystore.dto;
+
+import com.example.grocerystore.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a keyset-paginated product listing.
+ * {@code next} is the cursor for the following page, or null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class ProductPage {
+    private List<Product> items;
+    private String next;
+}
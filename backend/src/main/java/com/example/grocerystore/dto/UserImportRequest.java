@@ -0,0 +1,18 @@
+package com.example.grocerystore.dto;
+
+import lombok.Data;
+
+/**
+ * DTO for one customer in a bulk import from the legacy system.
+ * Either {@code passwordHash} (an existing BCrypt hash, kept as is) or
+ * {@code password} (plain text, hashed on import) must be present.
+ */
+@Data
+public class UserImportRequest {
+    private String name;
+    private String email;
+    private String address;
+    private String contactNumber;
+    private String password;
+    private String passwordHash;
+}
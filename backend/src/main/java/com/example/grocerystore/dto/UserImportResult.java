@@ -0,0 +1,22 @@
+package com.example.grocerystore.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO summarising a bulk user import.
+ * Skipped users already existed; failed users were invalid. {@code errors}
+ * holds the first messages, each prefixed with the 1-based record number.
+ * {@code abortReason} is set when the import stopped early; the counts then
+ * cover the chunks committed before it stopped.
+ */
+@Data
+public class UserImportResult {
+    private long imported;
+    private long skipped;
+    private long failed;
+    private List<String> errors = new ArrayList<>();
+    private String abortReason;
+}
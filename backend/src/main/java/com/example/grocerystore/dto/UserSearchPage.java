@@ -0,0 +1,17 @@
+package com.example.grocerystore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for one page of admin user search results, in id order.
+ * {@code next} is the id to pass as {@code after} for the following page, or null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class UserSearchPage {
+    private List<UserResponse> items;
+    private Long next;
+}
@@ -0,0 +1,55 @@
+package com.example.grocerystore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * FlashSale entity recording one run of in-memory stock management for a product.
+ * Order items sold during the run reference it, so units claimed by an instance
+ * that stopped can be told apart from units sold, and handed back after the run.
+ */
+@Entity
+@Table(name = "flash_sales")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSale {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flash_sales_seq")
+    @SequenceGenerator(name = "flash_sales_seq", sequenceName = "flash_sales_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Boolean active;
+
+    /**
+     * Units moved from products.quantity into instance counters.
+     */
+    @Column(nullable = false)
+    private Long claimedUnits;
+
+    /**
+     * Claimed units handed back to products.quantity unsold.
+     */
+    @Column(nullable = false)
+    private Long returnedUnits;
+
+    /**
+     * Set once the run has ended and every claimed unit is sold or handed back.
+     */
+    @Column(nullable = false)
+    private Boolean settled;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime endedAt;
+}
@@ -1,5 +1,6 @@
 package com.example.grocerystore.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,14 +10,17 @@ import lombok.NoArgsConstructor;
  * OrderItem entity representing individual items within an order.
  */
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+    @Index(name = "idx_order_items_order_id", columnList = "order_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,4 +36,11 @@ public class OrderItem {
 
     @Column(nullable = false)
     private Double price;
+
+    /**
+     * Flash sale run whose in-memory stock this item was taken from, if any.
+     */
+    @JsonIgnore
+    @Column(name = "flash_sale_id")
+    private Long flashSaleId;
 }
@@ -0,0 +1,30 @@
+package com.example.grocerystore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OrderShardOverride entity pinning a user's orders to a shard other than the one
+ * their user id hashes to. Written by the rebalancing tool when it moves a user;
+ * while {@code movingTo} is set the move is in progress and no instance writes
+ * new orders for the user.
+ */
+@Entity
+@Table(name = "order_shard_overrides")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderShardOverride {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(name = "moving_to")
+    private Integer movingTo;
+}
@@ -1,22 +1,27 @@
 package com.example.grocerystore.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Locale;
+
 /**
  * Product entity representing grocery items in the store.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_price_id", columnList = "price, id"),
+    @Index(name = "idx_products_name_key_id", columnList = "nameKey, id")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,4 +32,40 @@ public class Product {
 
     @Column(nullable = false)
     private Integer quantity;
+
+    /**
+     * Lower-cased name that name orders sort by, both in the catalog and in the database,
+     * so the two agree on mixed-case names and their cursors are interchangeable.
+     */
+    @JsonIgnore
+    private String nameKey;
+
+    public Product(Long id, String name, Double price, Integer quantity) {
+        this.id = id;
+        this.price = price;
+        this.quantity = quantity;
+        setName(name);
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = sortKey(name);
+    }
+
+    /**
+     * The name sort key, derived from the name for rows stored before the column existed.
+     */
+    public String getNameKey() {
+        return nameKey != null ? nameKey : sortKey(name);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateSortKey() {
+        nameKey = sortKey(name);
+    }
+
+    public static String sortKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
 }
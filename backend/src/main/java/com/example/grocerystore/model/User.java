@@ -9,6 +9,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -17,14 +18,20 @@ import java.util.stream.Collectors;
  * Implements UserDetails for Spring Security integration.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_name_key", columnList = "nameKey"),
+    @Index(name = "idx_users_surname_key", columnList = "surnameKey"),
+    @Index(name = "idx_users_email_key", columnList = "emailKey"),
+    @Index(name = "idx_users_contact_number", columnList = "contactNumber")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -42,6 +49,21 @@ public class User implements UserDetails {
     @Column(nullable = false, length = 10)
     private String contactNumber;
 
+    /**
+     * Embedded in issued tokens; bumping it revokes every token issued before.
+     */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private Integer tokenVersion = 0;
+
+    /**
+     * Case-folded name, last word of the name and email, kept for indexed prefix search.
+     */
+    private String nameKey;
+
+    private String surnameKey;
+
+    private String emailKey;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "user_roles",
@@ -50,6 +72,24 @@ public class User implements UserDetails {
     )
     private Set<Role> roles;
 
+    /**
+     * Recompute the search keys from name and email whenever the user is written.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateSearchKeys() {
+        nameKey = searchKey(name);
+        surnameKey = nameKey == null ? null : nameKey.substring(nameKey.lastIndexOf(' ') + 1);
+        emailKey = searchKey(email);
+    }
+
+    /**
+     * Lower-case with runs of whitespace collapsed, as stored in the search key columns.
+     */
+    public static String searchKey(String value) {
+        return value == null ? null : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
     // UserDetails implementation methods
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,63 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.model.FlashSale;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for FlashSale entity operations.
+ */
+@Repository
+public interface FlashSaleRepository extends JpaRepository<FlashSale, Long> {
+
+    /**
+     * Find all flash sales that are still running.
+     */
+    List<FlashSale> findByActiveTrue();
+
+    /**
+     * Find the running flash sale of a product, if any.
+     */
+    Optional<FlashSale> findByProductIdAndActiveTrue(Long productId);
+
+    /**
+     * Find runs that ended before the cutoff and still have to be settled.
+     */
+    List<FlashSale> findBySettledFalseAndEndedAtBefore(LocalDateTime cutoff);
+
+    /**
+     * Load a run holding its row lock until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM FlashSale f WHERE f.id = :id")
+    Optional<FlashSale> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Record units claimed from products.quantity by an instance counter.
+     */
+    @Modifying
+    @Query("UPDATE FlashSale f SET f.claimedUnits = f.claimedUnits + :units WHERE f.id = :id")
+    int addClaimedUnits(@Param("id") Long id, @Param("units") long units);
+
+    /**
+     * Record claimed units handed back to products.quantity.
+     */
+    @Modifying
+    @Query("UPDATE FlashSale f SET f.returnedUnits = f.returnedUnits + :units WHERE f.id = :id")
+    int addReturnedUnits(@Param("id") Long id, @Param("units") long units);
+
+    /**
+     * Total units sold in committed orders during a flash sale run.
+     */
+    @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM OrderItem i WHERE i.flashSaleId = :id")
+    long sumSoldUnits(@Param("id") Long id);
+}
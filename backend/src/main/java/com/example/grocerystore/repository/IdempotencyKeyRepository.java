@@ -0,0 +1,39 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository interface for IdempotencyKey entity operations.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    /**
+     * Find the order recorded for a user's key.
+     */
+    Optional<IdempotencyKey> findByUserEmailAndIdempotencyKey(String userEmail, String idempotencyKey);
+
+    /**
+     * Remove keys older than the retention window.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Remove one user's key if it is older than the retention window, so it can be reused.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.userEmail = :userEmail AND k.idempotencyKey = :idempotencyKey "
+            + "AND k.createdAt < :cutoff")
+    int deleteExpired(@Param("userEmail") String userEmail, @Param("idempotencyKey") String idempotencyKey,
+                      @Param("cutoff") LocalDateTime cutoff);
+}
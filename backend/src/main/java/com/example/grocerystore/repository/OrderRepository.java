@@ -1,11 +1,19 @@
 package com.example.grocerystore.repository;
 
+import com.example.grocerystore.dto.OrderItemResponse;
+import com.example.grocerystore.dto.OrderResponse;
 import com.example.grocerystore.model.Order;
-import com.example.grocerystore.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Order entity operations.
@@ -14,7 +22,39 @@ import java.util.List;
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     /**
-     * Find all orders for a specific user, ordered by date descending.
+     * Find an order together with its owner, items and their products.
      */
-    List<Order> findByUserOrderByOrderDateDesc(User user);
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.product"})
+    Optional<Order> findWithItemsById(Long id);
+
+    /**
+     * First page of a user's orders, newest first.
+     */
+    @Query("SELECT new com.example.grocerystore.dto.OrderResponse(o.id, o.orderDate, o.totalAmount) "
+            + "FROM Order o WHERE o.user.email = :email ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderResponse> findHistory(@Param("email") String email, Pageable pageable);
+
+    /**
+     * Page of a user's orders placed before the (orderDate, id) keyset position.
+     */
+    @Query("SELECT new com.example.grocerystore.dto.OrderResponse(o.id, o.orderDate, o.totalAmount) "
+            + "FROM Order o WHERE o.user.email = :email "
+            + "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderResponse> findHistoryBefore(@Param("email") String email, @Param("orderDate") LocalDateTime orderDate,
+                                          @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Newest orders of all users.
+     */
+    @Query("SELECT new com.example.grocerystore.dto.OrderResponse(o.id, o.orderDate, o.totalAmount) "
+            + "FROM Order o ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderResponse> findRecent(Pageable pageable);
+
+    /**
+     * Items of several orders with their product names, in one query.
+     */
+    @Query("SELECT new com.example.grocerystore.dto.OrderItemResponse(i.order.id, i.id, p.id, p.name, i.quantity, i.price) "
+            + "FROM OrderItem i JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemResponse> findItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,12 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.model.OrderShardOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for OrderShardOverride entity operations.
+ */
+@Repository
+public interface OrderShardOverrideRepository extends JpaRepository<OrderShardOverride, Long> {
+}
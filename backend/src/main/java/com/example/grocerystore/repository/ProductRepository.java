@@ -1,12 +1,18 @@
 package com.example.grocerystore.repository;
 
 import com.example.grocerystore.model.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Product entity operations.
@@ -19,4 +25,71 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Product> findByNameContainingIgnoreCase(@Param("name") String name);
+
+    /**
+     * Load several products in one IN query, ordered by id.
+     */
+    List<Product> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Atomically take stock if enough is left. Returns 1 on success, 0 if stock is
+     * insufficient or the product does not exist. Holds the row lock until commit.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity WHERE p.id = :id AND p.quantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Put back units taken out earlier, such as flash sale stock an instance did not sell.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :units WHERE p.id = :id")
+    int restoreStock(@Param("id") Long id, @Param("units") int units);
+
+    /**
+     * Load a product holding its row lock until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * First page of a listing; order and size come from the pageable. No count query is issued.
+     */
+    @Query("SELECT p FROM Product p")
+    List<Product> findPage(Pageable pageable);
+
+    /**
+     * Keyset page ordered by id.
+     */
+    @Query("SELECT p FROM Product p WHERE p.id > :id ORDER BY p.id")
+    List<Product> findPageAfterId(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Keyset page ordered by price ascending, ties broken by id.
+     */
+    @Query("SELECT p FROM Product p WHERE p.price > :price OR (p.price = :price AND p.id > :id) " +
+           "ORDER BY p.price, p.id")
+    List<Product> findPageAfterPrice(@Param("price") Double price, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Keyset page ordered by price descending, ties broken by id descending.
+     */
+    @Query("SELECT p FROM Product p WHERE p.price < :price OR (p.price = :price AND p.id < :id) " +
+           "ORDER BY p.price DESC, p.id DESC")
+    List<Product> findPageAfterPriceDesc(@Param("price") Double price, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Keyset page ordered by lower-cased name ascending, ties broken by id.
+     */
+    @Query("SELECT p FROM Product p WHERE p.nameKey > :nameKey OR (p.nameKey = :nameKey AND p.id > :id) " +
+           "ORDER BY p.nameKey, p.id")
+    List<Product> findPageAfterName(@Param("nameKey") String nameKey, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Keyset page ordered by lower-cased name descending, ties broken by id descending.
+     */
+    @Query("SELECT p FROM Product p WHERE p.nameKey < :nameKey OR (p.nameKey = :nameKey AND p.id < :id) " +
+           "ORDER BY p.nameKey DESC, p.id DESC")
+    List<Product> findPageAfterNameDesc(@Param("nameKey") String nameKey, @Param("id") Long id, Pageable pageable);
 }
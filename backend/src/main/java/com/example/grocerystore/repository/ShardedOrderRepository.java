@@ -0,0 +1,481 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.dto.OrderItemResponse;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.model.Order;
+import com.example.grocerystore.model.OrderItem;
+import com.example.grocerystore.config.ConnectionLimitingDataSource;
+import com.example.grocerystore.model.OrderShardOverride;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional sharded storage for orders and their items, spread over N databases by user id.
+ * Each user's orders live on one shard (hash of the user id, unless the rebalancing
+ * tool pinned them elsewhere), so placing an order and reading a customer's history
+ * touch a single database; admin-wide queries scatter to every shard in parallel and
+ * merge the results.
+ *
+ * Shard tables carry the product name and no foreign keys, since users and products
+ * stay on the main database. Ids come from a per-shard sequence starting at the shard
+ * index + 1 and stepping by {@code id-stride}, so they stay unique when orders move.
+ *
+ * The shard pools are not Spring beans, so this class registers their metrics and,
+ * in virtual-thread mode, puts the same connection guard in front of them as
+ * VirtualThreadConfig does for the main pool.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ShardedOrderRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedOrderRepository.class);
+
+    private static final String ORDER_COLUMNS = "id, order_date, total_amount";
+    private static final String ITEM_COLUMNS = "order_id, id, product_id, product_name, quantity, price";
+
+    private static final RowMapper<OrderResponse> ORDER_ROW = (rs, rowNum) -> new OrderResponse(
+            rs.getLong("id"), rs.getTimestamp("order_date").toLocalDateTime(), rs.getDouble("total_amount"));
+
+    private static final RowMapper<OrderItemResponse> ITEM_ROW = (rs, rowNum) -> new OrderItemResponse(
+            rs.getLong("order_id"), rs.getLong("id"), rs.getLong("product_id"), rs.getString("product_name"),
+            rs.getInt("quantity"), rs.getDouble("price"));
+
+    private final OrderShardOverrideRepository overrideRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orders.sharding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.sharding.urls:}")
+    private String urls = "";
+
+    @Value("${orders.sharding.username:sa}")
+    private String username = "sa";
+
+    @Value("${orders.sharding.password:}")
+    private String password = "";
+
+    @Value("${orders.sharding.pool-size:10}")
+    private int poolSize = 10;
+
+    @Value("${orders.sharding.id-stride:1024}")
+    private int idStride = 1024;
+
+    @Value("${orders.sharding.override-refresh-ms:30000}")
+    private long overrideRefreshMs = 30000;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final Map<Long, OrderShardOverride> overrides = new ConcurrentHashMap<>();
+    private ExecutorService scatterExecutor;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        String[] shardUrls = urls.split(",");
+        if (urls.isBlank() || shardUrls.length > idStride) {
+            throw new IllegalStateException("orders.sharding.urls must list 1 to " + idStride + " databases");
+        }
+        for (int i = 0; i < shardUrls.length; i++) {
+            shards.add(new Shard(i, shardUrls[i].trim()));
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        scatterExecutor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "order-shard-scatter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        refreshOverrides();
+        log.info("Order sharding enabled across {} databases", shards.size());
+    }
+
+    @PreDestroy
+    void close() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+        shards.forEach(shard -> shard.pool.close());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Shard holding a user's orders: their override if any, otherwise a hash of the user id.
+     */
+    public int shardFor(Long userId) {
+        OrderShardOverride pinned = overrides.get(userId);
+        if (pinned != null) {
+            return pinned.getShard();
+        }
+        // Spread sequential ids evenly before taking the modulus
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), shards.size());
+    }
+
+    /**
+     * Whether the rebalancing tool is moving the user's orders, as last seen by this instance.
+     */
+    public boolean isMoving(Long userId) {
+        OrderShardOverride pinned = overrides.get(userId);
+        return pinned != null && pinned.getMovingTo() != null;
+    }
+
+    /**
+     * Store a new order and its items on the user's shard in one shard transaction.
+     * Fails while the user's orders are being moved, as the order could be left behind.
+     */
+    public OrderResponse insert(Long userId, Order order) {
+        if (isMoving(userId)) {
+            throw new IllegalStateException("Orders of this account are being moved, please retry in a minute");
+        }
+        Shard shard = shards.get(shardFor(userId));
+        List<OrderItem> items = order.getOrderItems();
+        return shard.transactionTemplate.execute(status -> {
+            List<Long> ids = shard.jdbc.queryForList(shard.idSql, Long.class, items.size() + 1);
+            long orderId = ids.get(0);
+            LocalDateTime orderDate = LocalDateTime.now();
+            shard.jdbc.update("INSERT INTO orders (id, user_id, order_date, total_amount) VALUES (?, ?, ?, ?)",
+                    orderId, userId, Timestamp.valueOf(orderDate), order.getTotalAmount());
+
+            List<Object[]> rows = new ArrayList<>(items.size());
+            List<OrderItemResponse> responses = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                OrderItem item = items.get(i);
+                long itemId = ids.get(i + 1);
+                rows.add(new Object[]{itemId, orderId, item.getProduct().getId(), item.getProduct().getName(),
+                        item.getQuantity(), item.getPrice(), item.getFlashSaleId()});
+                responses.add(new OrderItemResponse(orderId, itemId, item.getProduct().getId(),
+                        item.getProduct().getName(), item.getQuantity(), item.getPrice()));
+            }
+            shard.jdbc.batchUpdate("INSERT INTO order_items (id, order_id, product_id, product_name, quantity, price, "
+                    + "flash_sale_id) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+            return new OrderResponse(orderId, orderDate, order.getTotalAmount(), responses);
+        });
+    }
+
+    /**
+     * Remove an order again, e.g. when the main transaction that reserved its stock rolled back.
+     */
+    public void delete(Long userId, Long orderId) {
+        delete(shards.get(shardFor(userId)), userId, orderId);
+        OrderShardOverride pinned = overrides.get(userId);
+        if (pinned != null && pinned.getMovingTo() != null) {
+            // A move that started since the insert may already have copied it
+            delete(shards.get(pinned.getMovingTo()), userId, orderId);
+        }
+    }
+
+    /**
+     * A page of a user's orders newest first, optionally before the (orderDate, id) keyset position.
+     */
+    public List<OrderResponse> findHistory(Long userId, LocalDateTime beforeDate, Long beforeId, int limit) {
+        Shard shard = shards.get(shardFor(userId));
+        if (beforeDate == null) {
+            return shard.jdbc.query("SELECT " + ORDER_COLUMNS + " FROM orders WHERE user_id = ? "
+                    + "ORDER BY order_date DESC, id DESC LIMIT ?", ORDER_ROW, userId, limit);
+        }
+        Timestamp before = Timestamp.valueOf(beforeDate);
+        return shard.jdbc.query("SELECT " + ORDER_COLUMNS + " FROM orders WHERE user_id = ? "
+                + "AND (order_date < ? OR (order_date = ? AND id < ?)) "
+                + "ORDER BY order_date DESC, id DESC LIMIT ?", ORDER_ROW, userId, before, before, beforeId, limit);
+    }
+
+    /**
+     * Items of several of a user's orders, in one query on their shard.
+     */
+    public List<OrderItemResponse> findItems(Long userId, Collection<Long> orderIds) {
+        return findItems(shards.get(shardFor(userId)), orderIds);
+    }
+
+    /**
+     * One of the user's orders with its items, or empty if their shard has no such order.
+     */
+    public Optional<OrderResponse> findById(Long userId, Long orderId) {
+        Shard shard = shards.get(shardFor(userId));
+        List<OrderResponse> orders = shard.jdbc.query("SELECT " + ORDER_COLUMNS + " FROM orders "
+                + "WHERE id = ? AND user_id = ?", ORDER_ROW, orderId, userId);
+        if (orders.isEmpty()) {
+            return Optional.empty();
+        }
+        OrderResponse order = orders.get(0);
+        order.setOrderItems(findItems(shard, List.of(orderId)));
+        return Optional.of(order);
+    }
+
+    /**
+     * Whether any shard holds an order with this id.
+     */
+    public boolean exists(Long orderId) {
+        return scatter(shard -> shard.jdbc.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE id = ?", Long.class, orderId))
+                .stream().anyMatch(count -> count > 0);
+    }
+
+    /**
+     * The newest orders across all shards, with items: each shard returns its own
+     * newest {@code limit} in parallel and the results are merged.
+     */
+    public List<OrderResponse> findRecent(int limit) {
+        List<List<OrderResponse>> perShard = scatter(shard -> {
+            List<OrderResponse> orders = shard.jdbc.query("SELECT " + ORDER_COLUMNS + " FROM orders "
+                    + "ORDER BY order_date DESC, id DESC LIMIT ?", ORDER_ROW, limit);
+            Map<Long, OrderResponse> byId = new HashMap<>();
+            for (OrderResponse order : orders) {
+                order.setOrderItems(new ArrayList<>());
+                byId.put(order.getId(), order);
+            }
+            if (!byId.isEmpty()) {
+                for (OrderItemResponse item : findItems(shard, byId.keySet())) {
+                    byId.get(item.getOrderId()).getOrderItems().add(item);
+                }
+            }
+            return orders;
+        });
+        return perShard.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(OrderResponse::getOrderDate).thenComparing(OrderResponse::getId).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Units sold during a flash sale run, summed over every shard. Items are counted
+     * once by id, since a move briefly keeps them on both its old and new shard.
+     */
+    public long sumFlashSaleUnits(Long flashSaleId) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        scatter(shard -> shard.jdbc.query("SELECT id, quantity FROM order_items WHERE flash_sale_id = ?",
+                (rs, rowNum) -> Map.entry(rs.getLong("id"), rs.getInt("quantity")), flashSaleId))
+                .forEach(rows -> rows.forEach(row -> quantities.put(row.getKey(), row.getValue())));
+        return quantities.values().stream().mapToLong(Integer::longValue).sum();
+    }
+
+    /**
+     * Rebalancing tool: move every order of a user to the target shard and pin them there.
+     * <ol>
+     * <li>Mark the user as moving, which stops every instance writing their orders once it
+     * has re-read the overrides; wait for that, so no order lands on an old shard later.</li>
+     * <li>Copy their orders to the target shard; history is still read from the old one.</li>
+     * <li>Pin the user to the target shard, and wait for every instance to read from it.</li>
+     * <li>Delete the copied orders from the old shards.</li>
+     * </ol>
+     * Writes for the user fail for the duration. Safe to re-run after a failure, which
+     * leaves the user marked as moving until a run completes.
+     */
+    public int moveUser(Long userId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shards.size()) {
+            throw new IllegalArgumentException("shard must be between 0 and " + (shards.size() - 1));
+        }
+        publish(new OrderShardOverride(userId, shardFor(userId), targetShard));
+        awaitOtherInstances();
+
+        Shard target = shards.get(targetShard);
+        Map<Shard, List<Long>> copied = new HashMap<>();
+        for (Shard source : shards) {
+            if (source == target) {
+                continue;
+            }
+            List<Map<String, Object>> orders = source.jdbc.queryForList(
+                    "SELECT id, user_id, order_date, total_amount FROM orders WHERE user_id = ?", userId);
+            if (orders.isEmpty()) {
+                continue;
+            }
+            List<Long> ids = orders.stream().map(row -> ((Number) row.get("id")).longValue()).collect(Collectors.toList());
+            List<Map<String, Object>> items = source.named.queryForList("SELECT id, order_id, product_id, product_name, "
+                    + "quantity, price, flash_sale_id FROM order_items WHERE order_id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids));
+            target.transactionTemplate.executeWithoutResult(status -> copy(target, ids, orders, items));
+            copied.put(source, ids);
+        }
+
+        publish(new OrderShardOverride(userId, targetShard, null));
+        awaitOtherInstances();
+
+        int moved = 0;
+        for (Map.Entry<Shard, List<Long>> entry : copied.entrySet()) {
+            Shard source = entry.getKey();
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids", entry.getValue());
+            source.transactionTemplate.executeWithoutResult(status -> {
+                source.named.update("DELETE FROM order_items WHERE order_id IN (:ids)", ids);
+                source.named.update("DELETE FROM orders WHERE id IN (:ids)", ids);
+            });
+            moved += entry.getValue().size();
+        }
+        log.info("Moved {} orders of user {} to shard {}", moved, userId, targetShard);
+        return moved;
+    }
+
+    /**
+     * Re-read overrides written by the rebalancing tool on other instances.
+     */
+    @Scheduled(fixedDelayString = "${orders.sharding.override-refresh-ms:30000}")
+    public void refreshOverrides() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, OrderShardOverride> latest = new HashMap<>();
+        for (OrderShardOverride override : overrideRepository.findAll()) {
+            latest.put(override.getUserId(), override);
+        }
+        overrides.keySet().retainAll(latest.keySet());
+        overrides.putAll(latest);
+    }
+
+    private void publish(OrderShardOverride override) {
+        overrideRepository.save(override);
+        overrides.put(override.getUserId(), override);
+    }
+
+    /**
+     * Wait until every instance has re-read the overrides: one refresh interval, plus
+     * another for a refresh that was already running when the override was saved.
+     */
+    private void awaitOtherInstances() {
+        try {
+            Thread.sleep(2 * overrideRefreshMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while moving orders; run the move again to finish it", e);
+        }
+    }
+
+    private static void delete(Shard shard, Long userId, Long orderId) {
+        shard.transactionTemplate.executeWithoutResult(status -> {
+            shard.jdbc.update("DELETE FROM order_items WHERE order_id = ?", orderId);
+            shard.jdbc.update("DELETE FROM orders WHERE id = ? AND user_id = ?", orderId, userId);
+        });
+    }
+
+    private static void copy(Shard target, List<Long> ids, List<Map<String, Object>> orders,
+                             List<Map<String, Object>> items) {
+        // Rows copied by an earlier, interrupted run are already there
+        Set<Long> present = new HashSet<>(target.named.queryForList("SELECT id FROM orders WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids), Long.class));
+        List<Object[]> orderRows = new ArrayList<>();
+        for (Map<String, Object> row : orders) {
+            if (!present.contains(((Number) row.get("id")).longValue())) {
+                orderRows.add(new Object[]{row.get("id"), row.get("user_id"), row.get("order_date"), row.get("total_amount")});
+            }
+        }
+        List<Object[]> itemRows = new ArrayList<>();
+        for (Map<String, Object> row : items) {
+            if (!present.contains(((Number) row.get("order_id")).longValue())) {
+                itemRows.add(new Object[]{row.get("id"), row.get("order_id"), row.get("product_id"),
+                        row.get("product_name"), row.get("quantity"), row.get("price"), row.get("flash_sale_id")});
+            }
+        }
+        target.jdbc.batchUpdate("INSERT INTO orders (id, user_id, order_date, total_amount) VALUES (?, ?, ?, ?)",
+                orderRows);
+        target.jdbc.batchUpdate("INSERT INTO order_items (id, order_id, product_id, product_name, quantity, price, "
+                + "flash_sale_id) VALUES (?, ?, ?, ?, ?, ?, ?)", itemRows);
+    }
+
+    private static List<OrderItemResponse> findItems(Shard shard, Collection<Long> orderIds) {
+        return shard.named.query("SELECT " + ITEM_COLUMNS + " FROM order_items WHERE order_id IN (:ids) ORDER BY id",
+                new MapSqlParameterSource("ids", orderIds), ITEM_ROW);
+    }
+
+    private <T> List<T> scatter(Function<Shard, T> query) {
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), scatterExecutor))
+                .collect(Collectors.toList());
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    private final class Shard {
+        private final HikariDataSource pool;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private final NamedParameterJdbcTemplate named;
+        private final TransactionTemplate transactionTemplate;
+        private final String idSql;
+
+        Shard(int index, String url) {
+            pool = new HikariDataSource();
+            pool.setJdbcUrl(url);
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setPoolName("order-shard-" + index);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            dataSource = virtualThreads
+                    ? new ConnectionLimitingDataSource(pool, poolSize, pool.getConnectionTimeout())
+                    : pool;
+            jdbc = new JdbcTemplate(dataSource);
+            named = new NamedParameterJdbcTemplate(jdbc);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            idSql = isH2() ? "SELECT NEXT VALUE FOR shard_ids FROM SYSTEM_RANGE(1, ?)"
+                    : "SELECT nextval('shard_ids') FROM generate_series(1, ?)";
+            createSchema(index);
+        }
+
+        private boolean isH2() {
+            try (Connection connection = dataSource.getConnection()) {
+                return "H2".equals(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot connect to order shard " + pool.getJdbcUrl(), e);
+            }
+        }
+
+        private void createSchema(int index) {
+            jdbc.execute("CREATE TABLE IF NOT EXISTS orders (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL, "
+                    + "order_date TIMESTAMP NOT NULL, total_amount DOUBLE PRECISION NOT NULL)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_orders_user_date_id ON orders (user_id, order_date, id)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_orders_date_id ON orders (order_date, id)");
+            jdbc.execute("CREATE TABLE IF NOT EXISTS order_items (id BIGINT PRIMARY KEY, "
+                    + "order_id BIGINT NOT NULL REFERENCES orders (id), product_id BIGINT NOT NULL, "
+                    + "product_name VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, "
+                    + "price DOUBLE PRECISION NOT NULL, flash_sale_id BIGINT)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_order_items_flash_sale_id ON order_items (flash_sale_id)");
+            jdbc.execute("CREATE SEQUENCE IF NOT EXISTS shard_ids START WITH " + (index + 1)
+                    + " INCREMENT BY " + idStride);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.grocerystore.repository;
 
+import com.example.grocerystore.dto.UserResponse;
 import com.example.grocerystore.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for User entity operations.
@@ -20,14 +24,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Current token version of a user, without loading the entity or its roles.
+     */
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
     /**
      * Check if user exists by email.
      */
     boolean existsByEmail(String email);
 
     /**
-     * Search users by name (case-insensitive, partial match).
+     * Which of the given emails are already registered, in one query.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Users whose case-folded full name or last name starts with the prefix, after the id keyset position.
+     */
+    @Query("SELECT new com.example.grocerystore.dto.UserResponse(u.id, u.name, u.email, u.address, u.contactNumber) "
+            + "FROM User u WHERE (u.nameKey LIKE :prefix ESCAPE '\\' OR u.surnameKey LIKE :prefix ESCAPE '\\') "
+            + "AND u.id > :afterId ORDER BY u.id")
+    List<UserResponse> searchByName(@Param("prefix") String prefix, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Users whose case-folded email starts with the prefix, after the id keyset position.
+     */
+    @Query("SELECT new com.example.grocerystore.dto.UserResponse(u.id, u.name, u.email, u.address, u.contactNumber) "
+            + "FROM User u WHERE u.emailKey LIKE :prefix ESCAPE '\\' AND u.id > :afterId ORDER BY u.id")
+    List<UserResponse> searchByEmail(@Param("prefix") String prefix, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Users whose contact number starts with the prefix, after the id keyset position.
      */
-    @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<User> findByNameContainingIgnoreCase(@Param("name") String name);
+    @Query("SELECT new com.example.grocerystore.dto.UserResponse(u.id, u.name, u.email, u.address, u.contactNumber) "
+            + "FROM User u WHERE u.contactNumber LIKE :prefix ESCAPE '\\' AND u.id > :afterId ORDER BY u.id")
+    List<UserResponse> searchByContactNumber(@Param("prefix") String prefix, @Param("afterId") Long afterId,
+                                             Pageable pageable);
 }
@@ -0,0 +1,72 @@
+package com.example.grocerystore.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Admission control for the login and registration endpoints.
+ * Each client IP and each account (email) has its own bucket; a request
+ * must be admitted by both. The buckets are kept in {@link RateLimitFilter}'s
+ * lock-free GCRA store under their own key prefixes, so they share its
+ * entry bound and idle sweep.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimiter {
+
+    private final RateLimitFilter rateLimitFilter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.rate-limit.ip.capacity:20}")
+    private int ipCapacity = 20;
+
+    @Value("${auth.rate-limit.ip.per-minute:20}")
+    private double ipPerMinute = 20;
+
+    @Value("${auth.rate-limit.account.capacity:5}")
+    private int accountCapacity = 5;
+
+    @Value("${auth.rate-limit.account.per-minute:5}")
+    private double accountPerMinute = 5;
+
+    private RateLimitFilter.Limit ipLimit;
+    private RateLimitFilter.Limit accountLimit;
+    private Counter ipRejected;
+    private Counter accountRejected;
+
+    @PostConstruct
+    void init() {
+        ipLimit = new RateLimitFilter.Limit(ipCapacity, ipPerMinute / 60);
+        accountLimit = new RateLimitFilter.Limit(accountCapacity, accountPerMinute / 60);
+        ipRejected = Counter.builder("auth.rate-limit.rejected").tag("scope", "ip").register(meterRegistry);
+        accountRejected = Counter.builder("auth.rate-limit.rejected").tag("scope", "account").register(meterRegistry);
+    }
+
+    /**
+     * Admit one attempt for the IP and one for the account, if both allow it.
+     */
+    public boolean tryAcquire(String ip, String account) {
+        return tryAcquire(ip, account, System.nanoTime());
+    }
+
+    boolean tryAcquire(String ip, String account, long now) {
+        if (rateLimitFilter.acquire("auth-ip:" + ip, ipLimit, now) > 0) {
+            ipRejected.increment();
+            return false;
+        }
+        if (account != null) {
+            String key = "auth-account:" + account.trim().toLowerCase(Locale.ROOT);
+            if (rateLimitFilter.acquire(key, accountLimit, now) > 0) {
+                accountRejected.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,33 +1,93 @@
 package com.example.grocerystore.security;
 
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Utility class for JWT token operations.
+ * The signing key and parser are built once. Verified tokens are remembered by
+ * their SHA-256 digest until they expire, so a client reusing its token skips
+ * the base64, JSON and HMAC work on every request after the first.
  */
 @Component
 public class JwtUtil {
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize = 10000;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private final Map<ByteBuffer, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * Verify a token and return its claims, parsing it at most once while it is valid.
+     * Throws JwtException if the token is malformed, tampered with or expired.
+     */
+    public Claims verify(String token) {
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            verified.remove(digest, cached);
+        }
+
+        Claims claims = extractAllClaims(token);
+        if (claims.getExpiration() != null) {
+            if (verified.size() >= verifiedCacheSize) {
+                evict(now);
+            }
+            verified.put(digest, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
     }
 
     /**
@@ -48,34 +108,27 @@ public class JwtUtil {
      * Extract specific claim from JWT token.
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    /**
-     * Extract all claims from JWT token.
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return claimsResolver.apply(verify(token));
     }
 
     /**
-     * Check if JWT token is expired.
+     * Extract all claims from JWT token, verifying its signature and expiry.
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
      * Generate JWT token for user.
+     * Carries the user id, role names and token version so requests can be
+     * authenticated from the verified claims without loading the user.
      */
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLES_CLAIM, user.getRoles().stream().map(Role::getName).collect(Collectors.toList()));
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        return createToken(claims, user.getEmail());
     }
 
     /**
@@ -87,15 +140,33 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Validate JWT token.
+     * Make room in the verified-token cache: drop expired entries, then, if it is
+     * still full, an arbitrary half. Dropped tokens are simply verified again.
      */
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private void evict(long now) {
+        verified.values().removeIf(token -> token.expiresAt <= now);
+        if (verified.size() >= verifiedCacheSize) {
+            int toRemove = verified.size() / 2;
+            Iterator<ByteBuffer> keys = verified.keySet().iterator();
+            while (toRemove-- > 0 && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+    }
+
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+
+        VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
     }
 }
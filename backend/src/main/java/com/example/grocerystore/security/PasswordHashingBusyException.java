@@ -0,0 +1,11 @@
+package com.example.grocerystore.security;
+
+/**
+ * Thrown when the password hashing executor is saturated and the request should be retried later.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
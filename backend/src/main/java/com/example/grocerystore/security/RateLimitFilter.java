@@ -0,0 +1,171 @@
+package com.example.grocerystore.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client rate limiting for the API, placed after the JWT filter.
+ * Authenticated requests are limited per user, anonymous ones per client IP
+ * (behind nginx, the X-Forwarded-For address; see server.forward-headers-strategy).
+ * Each bucket is a single AtomicLong holding its theoretical arrival time
+ * (GCRA), so admitting a request is one CAS with no locks; buckets live in a
+ * ConcurrentHashMap and are evicted once idle long enough to be full again.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${rate-limit.ip.capacity:60}")
+    private int ipCapacity = 60;
+
+    @Value("${rate-limit.ip.per-second:10}")
+    private double ipPerSecond = 10;
+
+    @Value("${rate-limit.user.capacity:120}")
+    private int userCapacity = 120;
+
+    @Value("${rate-limit.user.per-second:20}")
+    private double userPerSecond = 20;
+
+    @Value("${rate-limit.max-entries:100000}")
+    private int maxEntries = 100000;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private Limit ipLimit;
+    private Limit userLimit;
+    private Counter ipRejected;
+    private Counter userRejected;
+
+    @PostConstruct
+    void init() {
+        ipLimit = new Limit(ipCapacity, ipPerSecond);
+        userLimit = new Limit(userCapacity, userPerSecond);
+        ipRejected = Counter.builder("http.rate-limit.rejected").tag("scope", "ip").register(meterRegistry);
+        userRejected = Counter.builder("http.rate-limit.rejected").tag("scope", "user").register(meterRegistry);
+        Gauge.builder("http.rate-limit.buckets", buckets, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+
+        long waitNanos = authenticated
+                ? acquire("user:" + authentication.getName(), userLimit, System.nanoTime())
+                : acquire("ip:" + request.getRemoteAddr(), ipLimit, System.nanoTime());
+        if (waitNanos > 0) {
+            (authenticated ? userRejected : ipRejected).increment();
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("text/plain");
+            response.getWriter().write("Too many requests, please retry later");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Admit one request for the key, returning 0, or the nanoseconds until it would be admitted.
+     * A bucket's value is the time at which it will be full again; a request is
+     * admitted while that time is no more than {@code capacity} intervals ahead.
+     */
+    long acquire(String key, Limit limit, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries) {
+                evictIdle(now);
+            }
+            bucket = buckets.computeIfAbsent(key, ignored -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + limit.intervalNanos;
+            long excess = next - now - limit.burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they behave exactly like new ones.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        evictIdle(System.nanoTime());
+    }
+
+    private void evictIdle(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        if (buckets.size() >= maxEntries) {
+            // Still full of active clients; drop an arbitrary half rather than grow without bound
+            int toRemove = buckets.size() / 2;
+            Iterator<AtomicLong> iterator = buckets.values().iterator();
+            while (toRemove-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    Limit ipLimit() {
+        return ipLimit;
+    }
+
+    Limit userLimit() {
+        return userLimit;
+    }
+
+    static final class Limit {
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        Limit(int capacity, double perSecond) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+            this.burstNanos = intervalNanos * capacity;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.grocerystore.security;
+
+import com.example.grocerystore.config.ReplicaRoutingDataSource;
+import com.example.grocerystore.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of each user's current token version.
+ * Tokens carrying an older version are rejected. Versions are re-read from the
+ * database at most once per user per revocation-check interval, so the request
+ * path normally authenticates without any query.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.revocation-check-ms:30000}")
+    private long revocationCheckMs = 30000;
+
+    private final Map<Long, Entry> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a token issued at {@code tokenVersion} is still valid for the user.
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(userId);
+        if (entry == null || now - entry.loadedAt > revocationCheckMs) {
+            // A lagging replica could still hold the version from before a password change
+            Integer current = ReplicaRoutingDataSource.onPrimary(
+                    () -> userRepository.findTokenVersionById(userId).orElse(null));
+            if (current == null) {
+                versions.remove(userId);
+                return false;
+            }
+            entry = new Entry(current, now);
+            versions.put(userId, entry);
+        }
+        return entry.version == tokenVersion;
+    }
+
+    /**
+     * Forget a user's version so the next request re-reads it.
+     */
+    public void evict(Long userId) {
+        versions.remove(userId);
+    }
+
+    private static final class Entry {
+        private final int version;
+        private final long loadedAt;
+
+        Entry(int version, long loadedAt) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
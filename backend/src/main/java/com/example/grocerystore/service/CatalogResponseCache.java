@@ -0,0 +1,110 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.ProductPage;
+import com.example.grocerystore.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pre-serialized catalog responses. JSON bytes are produced once per catalog
+ * version and reused until ProductService publishes a new snapshot, so the hot
+ * listing path does no Jackson work at all; gzip bytes follow on first demand.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogResponseCache {
+
+    /**
+     * Upper bound on distinct pages kept per catalog version; the least recently used go first.
+     */
+    static final int MAX_CACHED_PAGES = 1024;
+
+    private final ProductCatalog productCatalog;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Generation> current = new AtomicReference<>();
+
+    /**
+     * Encoded list of all products.
+     */
+    public EncodedResponse allProducts() {
+        Generation generation = generation();
+        EncodedResponse encoded = generation.allProducts;
+        if (encoded == null) {
+            encoded = encode(generation, generation.snapshot.getProducts());
+            generation.allProducts = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * Encoded keyset page; throws IllegalArgumentException for a bad cursor, like ProductService.
+     */
+    public EncodedResponse page(ProductSort sort, String cursor, int limit) {
+        Generation generation = generation();
+        // Slicing the snapshot is cheap; key by the page it resolved to, so cursors and limits
+        // that land on the same items share one entry however they were spelled
+        ProductPage page = ProductService.pageOf(generation.snapshot, sort, cursor, limit);
+        List<Product> items = page.getItems();
+        String key = sort.getParam() + '|' + (items.isEmpty() ? "" : items.get(0).getId()) + '|' + items.size()
+                + '|' + (page.getNext() != null);
+        synchronized (generation.pages) {
+            EncodedResponse encoded = generation.pages.get(key);
+            if (encoded != null) {
+                return encoded;
+            }
+        }
+        EncodedResponse encoded = encode(generation, page);
+        synchronized (generation.pages) {
+            EncodedResponse raced = generation.pages.putIfAbsent(key, encoded);
+            return raced != null ? raced : encoded;
+        }
+    }
+
+    private Generation generation() {
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        Generation generation = current.get();
+        while (generation == null || generation.snapshot.getVersion() < snapshot.getVersion()) {
+            Generation fresh = new Generation(snapshot, productCatalog.catalogETag(snapshot));
+            if (current.compareAndSet(generation, fresh)) {
+                return fresh;
+            }
+            generation = current.get();
+        }
+        // A reader holding an older snapshot than the cached one encodes privately.
+        return generation.snapshot == snapshot ? generation
+                : new Generation(snapshot, productCatalog.catalogETag(snapshot));
+    }
+
+    private EncodedResponse encode(Generation generation, Object body) {
+        try {
+            return new EncodedResponse(generation.eTag, objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        }
+    }
+
+    private static final class Generation {
+        private final CatalogSnapshot snapshot;
+        private final String eTag;
+        private final Map<String, EncodedResponse> pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EncodedResponse> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+        private volatile EncodedResponse allProducts;
+
+        Generation(CatalogSnapshot snapshot, String eTag) {
+            this.snapshot = snapshot;
+            this.eTag = eTag;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, versioned view of the product catalog.
+ * Products are detached copies ordered by id; callers must treat them as read-only.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final List<Product> products;
+    private final Map<Long, Product> productsById;
+    private final Map<Long, Long> productVersions;
+    private volatile ProductSearchIndex searchIndex;
+    private volatile ProductSuggester suggester;
+    private final Map<ProductSort, List<Product>> sortedViews = new ConcurrentHashMap<>();
+
+    private CatalogSnapshot(long version, Map<Long, Product> productsById, Map<Long, Long> productVersions) {
+        List<Product> ordered = new ArrayList<>(productsById.values());
+        ordered.sort(Comparator.comparing(Product::getId));
+        this.version = version;
+        this.products = Collections.unmodifiableList(ordered);
+        this.productsById = Collections.unmodifiableMap(productsById);
+        this.productVersions = Collections.unmodifiableMap(productVersions);
+    }
+
+    /**
+     * Build a snapshot from freshly loaded products.
+     */
+    static CatalogSnapshot of(long version, Collection<Product> products) {
+        Map<Long, Product> productsById = new HashMap<>();
+        Map<Long, Long> productVersions = new HashMap<>();
+        for (Product product : products) {
+            productsById.put(product.getId(), copyOf(product));
+            productVersions.put(product.getId(), version);
+        }
+        return new CatalogSnapshot(version, productsById, productVersions);
+    }
+
+    /**
+     * Copy of this snapshot with the given product added or replaced.
+     */
+    CatalogSnapshot withProduct(long newVersion, Product product) {
+        Map<Long, Product> productsById = new HashMap<>(this.productsById);
+        Map<Long, Long> productVersions = new HashMap<>(this.productVersions);
+        productsById.put(product.getId(), copyOf(product));
+        productVersions.put(product.getId(), newVersion);
+        return new CatalogSnapshot(newVersion, productsById, productVersions);
+    }
+
+    /**
+     * Copy of this snapshot with the given product removed.
+     */
+    CatalogSnapshot withoutProduct(long newVersion, Long id) {
+        Map<Long, Product> productsById = new HashMap<>(this.productsById);
+        Map<Long, Long> productVersions = new HashMap<>(this.productVersions);
+        productsById.remove(id);
+        productVersions.remove(id);
+        return new CatalogSnapshot(newVersion, productsById, productVersions);
+    }
+
+    /**
+     * Detached copy of a product, so cached state never aliases a managed entity.
+     */
+    static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getPrice(), product.getQuantity());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * Whether this snapshot holds exactly the given products.
+     */
+    boolean matches(Collection<Product> others) {
+        if (others.size() != productsById.size()) {
+            return false;
+        }
+        for (Product other : others) {
+            if (!other.equals(productsById.get(other.getId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Catalog version at which the given product last changed, if it exists.
+     */
+    public Optional<Long> versionOf(Long id) {
+        return Optional.ofNullable(productVersions.get(id));
+    }
+
+    public Optional<Product> find(Long id) {
+        return Optional.ofNullable(productsById.get(id));
+    }
+
+    /**
+     * Up to {@code count} products in the given order that come strictly after {@code after}
+     * (a cursor probe from {@link ProductSort#decodeCursor}), or from the start when it is null.
+     */
+    public List<Product> page(ProductSort sort, Product after, int count) {
+        List<Product> sorted = sortedViews.computeIfAbsent(sort, this::sortedCopy);
+        int from = 0;
+        if (after != null) {
+            int position = Collections.binarySearch(sorted, after, sort.comparator());
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        return sorted.subList(from, Math.min(sorted.size(), from + count));
+    }
+
+    private List<Product> sortedCopy(ProductSort sort) {
+        if (sort == ProductSort.ID) {
+            return products;
+        }
+        List<Product> sorted = new ArrayList<>(products);
+        sorted.sort(sort.comparator());
+        return Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * Trigram index over this snapshot's product names, built on first use.
+     */
+    public ProductSearchIndex getSearchIndex() {
+        ProductSearchIndex index = searchIndex;
+        if (index == null) {
+            index = ProductSearchIndex.build(products);
+            searchIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Prefix index over this snapshot's product names, built on first use.
+     */
+    public ProductSuggester getSuggester() {
+        ProductSuggester current = suggester;
+        if (current == null) {
+            current = ProductSuggester.build(products);
+            suggester = current;
+        }
+        return current;
+    }
+
+    public int size() {
+        return products.size();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.grocerystore.service;
+
+/**
+ * Thrown when registering or importing a user whose email is already taken.
+ */
+public class EmailAlreadyRegisteredException extends RuntimeException {
+
+    public EmailAlreadyRegisteredException(String message) {
+        super(message);
+    }
+}
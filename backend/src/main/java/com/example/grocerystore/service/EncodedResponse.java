@@ -0,0 +1,50 @@
+package com.example.grocerystore.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response body encoded once as UTF-8 JSON, with the entity tag it was built for.
+ * The gzip variant is compressed on first request, so identity-only clients never pay for it.
+ */
+public final class EncodedResponse {
+
+    private final String eTag;
+    private final byte[] json;
+    private volatile byte[] gzip;
+
+    EncodedResponse(String eTag, byte[] json) {
+        this.eTag = eTag;
+        this.json = json;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        byte[] compressed = gzip;
+        if (compressed == null) {
+            // Racing callers may both compress; the results are identical
+            compressed = gzip(json);
+            gzip = compressed;
+        }
+        return compressed;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.FlashSaleStatus;
+import com.example.grocerystore.model.FlashSale;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.repository.FlashSaleRepository;
+import com.example.grocerystore.repository.ProductRepository;
+import com.example.grocerystore.repository.ShardedOrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Flash sale mode: checkouts of flagged products take stock from striped in-memory
+ * counters instead of updating the product row every time.
+ *
+ * Each instance fills its own counter by claiming blocks of stock from
+ * products.quantity with a guarded update, so the row only holds stock no counter
+ * has and no instance can sell more than it claimed. Checkouts that find the
+ * counter short fall back to the regular guarded decrement of the row. Runs are
+ * recorded in flash_sales and polled by every instance, so starting or stopping a
+ * sale on one instance reaches the others within flash-sale.refresh-interval-ms.
+ *
+ * When a run ends each instance hands its unsold units back to the row. Units still
+ * held by an instance that died are handed back once the run has been over for
+ * flash-sale.settle-after-ms: claimed minus returned minus sold, counting the order
+ * items that carry the run id.
+ */
+@Service
+@RequiredArgsConstructor
+public class FlashSaleService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleService.class);
+
+    private final ProductRepository productRepository;
+    private final FlashSaleRepository flashSaleRepository;
+    private final ShardedOrderRepository shardedOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, FlashStock> stocks = new ConcurrentHashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @Value("${flash-sale.stripes:0}")
+    private int stripes;
+
+    @Value("${flash-sale.claim-size:500}")
+    private int claimSize = 500;
+
+    @Value("${flash-sale.drain-timeout-ms:5000}")
+    private long drainTimeoutMs = 5000;
+
+    @Value("${flash-sale.settle-after-ms:60000}")
+    private long settleAfterMs = 60000;
+
+    /**
+     * Pick up runs that are already active before any request is served.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+    }
+
+    /**
+     * Start a flash sale for a product; this instance claims its first block at once.
+     */
+    public FlashSaleStatus start(Long productId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // The row lock serialises starts for the product across instances
+            productRepository.findByIdForUpdate(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+            if (flashSaleRepository.findByProductIdAndActiveTrue(productId).isPresent()) {
+                throw new RuntimeException("Flash sale already active for product id: " + productId);
+            }
+            flashSaleRepository.save(new FlashSale(null, productId, true, 0L, 0L, false, LocalDateTime.now(), null));
+        });
+        refresh();
+        return status(productId);
+    }
+
+    /**
+     * End a flash sale. This instance hands its unsold units back at once, the others on their next poll.
+     */
+    public FlashSaleStatus stop(Long productId) {
+        Boolean ended = transactionTemplate.execute(status -> flashSaleRepository.findByProductIdAndActiveTrue(productId)
+                .map(run -> {
+                    run.setActive(false);
+                    run.setEndedAt(LocalDateTime.now());
+                    return true;
+                })
+                .orElse(false));
+        if (!Boolean.TRUE.equals(ended)) {
+            throw new RuntimeException("No active flash sale for product id: " + productId);
+        }
+        refresh();
+        return status(productId);
+    }
+
+    /**
+     * Current state of a product's flash sale: units left across all instances, and those held here.
+     */
+    public FlashSaleStatus status(Long productId) {
+        FlashStock stock = stocks.get(productId);
+        long held = stock == null ? 0 : stock.counter.available();
+        return flashSaleRepository.findByProductIdAndActiveTrue(productId)
+                .map(run -> {
+                    long unsold = run.getClaimedUnits() - run.getReturnedUnits() - soldUnits(run.getId());
+                    int unclaimed = productRepository.findById(productId).map(Product::getQuantity).orElse(0);
+                    return new FlashSaleStatus(productId, true, unclaimed + unsold, held);
+                })
+                .orElseGet(() -> new FlashSaleStatus(productId, false, 0, held));
+    }
+
+    /**
+     * Whether this instance sells the product from a counter, as of its last poll.
+     */
+    public boolean isActive(Long productId) {
+        FlashStock stock = stocks.get(productId);
+        return stock != null && !stock.closing;
+    }
+
+    /**
+     * Take stock for the flash sale products in the basket from their counters.
+     * Units return to the counter if the surrounding transaction rolls back.
+     * Products whose counter is short or closing are left out, like products not
+     * on sale, for the caller to take from the database.
+     */
+    public Reservation reserve(Map<Long, Integer> quantities) {
+        Map<Long, Long> runIds = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            FlashStock stock = stocks.get(entry.getKey());
+            if (stock == null) {
+                continue;
+            }
+
+            // Register before checking closing, so close() either sees us in flight or we see it closing.
+            stock.inFlight.incrementAndGet();
+            int units = entry.getValue();
+            if (!stock.closing && stock.counter.tryTake(units)) {
+                runIds.put(entry.getKey(), stock.runId);
+                onCompletion(stock, units);
+            } else {
+                stock.inFlight.decrementAndGet();
+            }
+        }
+        return new Reservation(runIds);
+    }
+
+    /**
+     * Follow the runs recorded in the database: open counters for new runs, top up
+     * open ones, hand back the stock of ended ones and settle runs long over.
+     * Guarded by a lock rather than {@code synchronized}, which would pin a virtual
+     * thread to its carrier for the whole transaction.
+     */
+    @Scheduled(fixedDelayString = "${flash-sale.refresh-interval-ms:250}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            // Read in a read-write transaction so the runs come from the primary, not a lagging replica
+            List<FlashSale> runs = transactionTemplate.execute(status -> flashSaleRepository.findByActiveTrue());
+            Map<Long, FlashSale> active = new HashMap<>();
+            for (FlashSale run : runs) {
+                active.put(run.getProductId(), run);
+            }
+            for (FlashStock stock : stocks.values()) {
+                FlashSale run = active.get(stock.productId);
+                if (run == null || !run.getId().equals(stock.runId)) {
+                    close(stock);
+                }
+            }
+            for (FlashSale run : active.values()) {
+                FlashStock stock = stocks.computeIfAbsent(run.getProductId(),
+                        productId -> new FlashStock(productId, run.getId(), stripeCount()));
+                if (stock.runId.equals(run.getId())) {
+                    topUp(stock);
+                }
+            }
+            settleEndedRuns();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Claim stock from the product row until the counter holds a full block again.
+     */
+    private void topUp(FlashStock stock) {
+        long held = stock.counter.available();
+        if (held >= claimSize / 2) {
+            return;
+        }
+        try {
+            Integer claimed = transactionTemplate.execute(status -> {
+                int quantity = productRepository.findByIdForUpdate(stock.productId).map(Product::getQuantity).orElse(0);
+                int units = (int) Math.min(claimSize - held, quantity);
+                if (units <= 0 || productRepository.decrementStock(stock.productId, units) == 0) {
+                    return 0;
+                }
+                flashSaleRepository.addClaimedUnits(stock.runId, units);
+                return units;
+            });
+            if (claimed != null && claimed > 0) {
+                stock.counter.add(claimed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not claim flash sale stock for product {}", stock.productId, e);
+        }
+    }
+
+    /**
+     * Stop selling from the counter, wait for checkouts that already took from it,
+     * and hand what is left back to the product row. On failure the counter stays
+     * closed, with checkouts going to the database, and the next refresh retries.
+     */
+    private void close(FlashStock stock) {
+        stock.closing = true;
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (stock.inFlight.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                log.warn("Timed out waiting for flash sale checkouts of product {}, will retry", stock.productId);
+                return;
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        long unsold = stock.counter.available();
+        try {
+            if (unsold > 0) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    productRepository.restoreStock(stock.productId, (int) unsold);
+                    flashSaleRepository.addReturnedUnits(stock.runId, unsold);
+                });
+            }
+            stocks.remove(stock.productId, stock);
+        } catch (RuntimeException e) {
+            log.warn("Could not hand back flash sale stock for product {}, will retry", stock.productId, e);
+        }
+    }
+
+    /**
+     * Hand back units that instances claimed but never sold nor returned, for runs
+     * that ended long enough ago for every live instance to have returned its own.
+     */
+    private void settleEndedRuns() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(settleAfterMs));
+        List<FlashSale> endedRuns = transactionTemplate.execute(
+                status -> flashSaleRepository.findBySettledFalseAndEndedAtBefore(cutoff));
+        for (FlashSale ended : endedRuns) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> flashSaleRepository.findByIdForUpdate(ended.getId())
+                        .filter(run -> !run.getSettled())
+                        .ifPresent(run -> {
+                            long lost = run.getClaimedUnits() - run.getReturnedUnits() - soldUnits(run.getId());
+                            if (lost > 0) {
+                                log.warn("Handing back {} flash sale units held by stopped instances for product {}",
+                                        lost, run.getProductId());
+                                productRepository.restoreStock(run.getProductId(), (int) lost);
+                                run.setReturnedUnits(run.getReturnedUnits() + lost);
+                            }
+                            run.setSettled(true);
+                        }));
+            } catch (RuntimeException e) {
+                log.warn("Could not settle flash sale run {}", ended.getId(), e);
+            }
+        }
+    }
+
+    private void onCompletion(FlashStock stock, int units) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stock.inFlight.decrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    stock.counter.add(units);
+                }
+                stock.inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Units sold in a run, counting items on the order shards as well when sharding is enabled.
+     */
+    private long soldUnits(Long runId) {
+        long sold = flashSaleRepository.sumSoldUnits(runId);
+        return shardedOrderRepository.isEnabled() ? sold + shardedOrderRepository.sumFlashSaleUnits(runId) : sold;
+    }
+
+    private int stripeCount() {
+        return stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Outcome of {@link #reserve}: the run id of each product taken from a counter.
+     */
+    public static final class Reservation {
+        private final Map<Long, Long> runIds;
+
+        public Reservation(Map<Long, Long> runIds) {
+            this.runIds = Collections.unmodifiableMap(runIds);
+        }
+
+        public static Reservation none() {
+            return new Reservation(Collections.emptyMap());
+        }
+
+        public Map<Long, Long> getRunIds() {
+            return runIds;
+        }
+    }
+
+    private static final class FlashStock {
+        private final Long productId;
+        private final Long runId;
+        private final StripedStockCounter counter;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean closing;
+
+        FlashStock(Long productId, Long runId, int stripes) {
+            this.productId = productId;
+            this.runId = runId;
+            this.counter = new StripedStockCounter(stripes, 0);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.grocerystore.service;
+
+/**
+ * Thrown when an Idempotency-Key is sent again with a different order than the one it was first used for.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.OrderRequest;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.model.IdempotencyKey;
+import com.example.grocerystore.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Deduplicates order placement by client-supplied Idempotency-Key.
+ * Completed keys are served from a bounded in-memory cache, falling back to the
+ * idempotency_keys table; concurrent duplicates wait for the in-flight attempt.
+ * Keys older than orders.idempotency.ttl-ms are ignored in both places, so a
+ * reused key past its retention window places a new order. A key sent again with
+ * a different basket is rejected rather than answered with the original order.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderIdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.idempotency.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    @Value("${orders.idempotency.ttl-ms:86400000}")
+    private long ttlMs = 86400000;
+
+    @Value("${orders.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs = 10000;
+
+    private final Map<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Completed> completed = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Place an order at most once per user and key, returning the original order on retries.
+     *
+     * @throws IdempotencyKeyReusedException if the key was first used for a different order
+     */
+    public OrderResponse placeOrder(OrderRequest orderRequest, String userEmail, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = userEmail + '\n' + idempotencyKey;
+        String requestHash = fingerprint(orderRequest);
+
+        Completed cached = cached(cacheKey);
+        if (cached != null) {
+            return cached.orderFor(requestHash);
+        }
+
+        CompletableFuture<Completed> attempt = new CompletableFuture<>();
+        CompletableFuture<Completed> existing = inFlight.putIfAbsent(cacheKey, attempt);
+        if (existing != null) {
+            return await(existing).orderFor(requestHash);
+        }
+
+        try {
+            Completed entry = cached(cacheKey);
+            if (entry == null) {
+                // A row past the retention window may still be there if the purge has not run yet
+                Optional<IdempotencyKey> recorded = idempotencyKeyRepository
+                        .findByUserEmailAndIdempotencyKey(userEmail, idempotencyKey);
+                boolean expired = recorded.isPresent() && recorded.get().getCreatedAt().isBefore(cutoff());
+                entry = recorded.isPresent() && !expired
+                        ? recordedEntry(recorded.get(), userEmail)
+                        : create(orderRequest, userEmail, idempotencyKey, requestHash, expired);
+                synchronized (completed) {
+                    completed.put(cacheKey, entry);
+                }
+            }
+            attempt.complete(entry);
+            return entry.orderFor(requestHash);
+        } catch (RuntimeException e) {
+            attempt.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, attempt);
+        }
+    }
+
+    /**
+     * Drop keys past their retention window from the database.
+     */
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        transactionTemplate.executeWithoutResult(status -> idempotencyKeyRepository.deleteCreatedBefore(cutoff()));
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs));
+    }
+
+    private Completed create(OrderRequest orderRequest, String userEmail, String idempotencyKey,
+                             String requestHash, boolean replaceExpired) {
+        try {
+            OrderResponse order = transactionTemplate.execute(status -> {
+                if (replaceExpired) {
+                    idempotencyKeyRepository.deleteExpired(userEmail, idempotencyKey, cutoff());
+                }
+                OrderResponse created = orderService.createOrder(orderRequest, userEmail);
+                idempotencyKeyRepository.saveAndFlush(
+                        new IdempotencyKey(null, userEmail, idempotencyKey, created.getId(), requestHash, null));
+                return created;
+            });
+            return new Completed(order, requestHash, System.currentTimeMillis());
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed this key first; our order was rolled back.
+            IdempotencyKey winner = idempotencyKeyRepository.findByUserEmailAndIdempotencyKey(userEmail, idempotencyKey)
+                    .orElseThrow(() -> e);
+            return recordedEntry(winner, userEmail);
+        }
+    }
+
+    private Completed recordedEntry(IdempotencyKey recorded, String userEmail) {
+        OrderResponse order = orderService.getOrderById(recorded.getOrderId(), userEmail);
+        return new Completed(order, recorded.getRequestHash(), System.currentTimeMillis());
+    }
+
+    private Completed cached(String cacheKey) {
+        synchronized (completed) {
+            Completed entry = completed.get(cacheKey);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.completedAt > ttlMs) {
+                completed.remove(cacheKey);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * SHA-256 of the basket with quantities summed per product and products in id order,
+     * so the same order sent with its lines shuffled or split still matches.
+     */
+    static String fingerprint(OrderRequest orderRequest) {
+        Map<Long, Integer> quantities = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        if (orderRequest.getItems() != null) {
+            for (OrderRequest.OrderItemRequest item : orderRequest.getItems()) {
+                int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+                quantities.merge(item.getProductId(), quantity, Integer::sum);
+            }
+        }
+        StringBuilder canonical = new StringBuilder();
+        quantities.forEach((productId, quantity) -> canonical.append(productId).append(':').append(quantity).append(';'));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Completed await(CompletableFuture<Completed> attempt) {
+        try {
+            return attempt.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("An order with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original order attempt");
+        }
+    }
+
+    private static final class Completed {
+        private final OrderResponse order;
+        private final String requestHash;
+        private final long completedAt;
+
+        Completed(OrderResponse order, String requestHash, long completedAt) {
+            this.order = order;
+            this.requestHash = requestHash;
+            this.completedAt = completedAt;
+        }
+
+        OrderResponse orderFor(String requestHash) {
+            // Keys recorded before request hashes were stored cannot be checked
+            if (this.requestHash != null && !this.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different order");
+            }
+            return order;
+        }
+    }
+}
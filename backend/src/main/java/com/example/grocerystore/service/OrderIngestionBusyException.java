@@ -0,0 +1,11 @@
+package com.example.grocerystore.service;
+
+/**
+ * Thrown when the order ingestion queue is full or shutting down and the order should be retried later.
+ */
+public class OrderIngestionBusyException extends RuntimeException {
+
+    public OrderIngestionBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.OrderIngestionStatus;
+import com.example.grocerystore.dto.OrderRequest;
+import com.example.grocerystore.dto.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional asynchronous order ingestion with group commit.
+ * Placed orders are validated, queued and acknowledged with a reference at once;
+ * a single writer thread drains the queue and commits each batch in one
+ * transaction, so one commit covers many orders. Each batch is first screened
+ * against current stock, so orders that would fail are rejected before the group
+ * commit. If a batch still fails, its orders are retried one by one so a single
+ * bad basket only rejects itself.
+ *
+ * Confirmed and rejected statuses are kept for status-ttl-ms, and at most
+ * max-completed-statuses of them; past that the oldest are forgotten first.
+ *
+ * The queue lives only in memory: orders acknowledged with 202 but not yet
+ * committed are lost if the process crashes or is killed, and clients then see
+ * their reference as unknown. A graceful shutdown drains the queue first.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderIngestionService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionService.class);
+
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${orders.ingestion.enabled:false}")
+    private boolean enabled;
+
+    @Value("${orders.ingestion.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${orders.ingestion.max-batch-size:100}")
+    private int maxBatchSize = 100;
+
+    @Value("${orders.ingestion.max-wait-ms:5}")
+    private long maxWaitMs = 5;
+
+    @Value("${orders.ingestion.status-ttl-ms:3600000}")
+    private long statusTtlMs = 3600000;
+
+    @Value("${orders.ingestion.max-completed-statuses:100000}")
+    private int maxCompletedStatuses = 100000;
+
+    private final Map<String, Tracked> statuses = new ConcurrentHashMap<>();
+
+    // References of completed orders, oldest first; guarded by itself
+    private final Deque<String> completedReferences = new ArrayDeque<>();
+
+    private BlockingQueue<PendingOrder> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private Timer confirmTimer;
+    private DistributionSummary batchSizes;
+    private Counter confirmed;
+    private Counter rejected;
+    private Counter queueFull;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validate and queue an order, returning its PENDING status.
+     * Throws OrderIngestionBusyException when the queue is full or the service is stopping.
+     */
+    public OrderIngestionStatus submit(OrderRequest orderRequest, String userEmail) {
+        OrderService.validateItems(orderRequest);
+        if (!running) {
+            throw new OrderIngestionBusyException("Order ingestion is not running, please retry");
+        }
+
+        String reference = UUID.randomUUID().toString();
+        Tracked tracked = new Tracked(userEmail);
+        statuses.put(reference, tracked);
+        PendingOrder pending = new PendingOrder(reference, orderRequest, userEmail, tracked, System.nanoTime());
+        if (!queue.offer(pending)) {
+            statuses.remove(reference);
+            queueFull.increment();
+            throw new OrderIngestionBusyException("Order queue is full, please retry");
+        }
+        // stop() may have raced the offer and the writer may already have drained and exited
+        if (!running && queue.remove(pending)) {
+            statuses.remove(reference);
+            throw new OrderIngestionBusyException("Order ingestion is not running, please retry");
+        }
+        return tracked.toStatus(reference);
+    }
+
+    /**
+     * Status of a queued order, visible only to the user who placed it.
+     */
+    public OrderIngestionStatus getStatus(String reference, String userEmail) {
+        Tracked tracked = statuses.get(reference);
+        if (tracked == null || !tracked.userEmail.equals(userEmail)) {
+            throw new RuntimeException("Order reference not found: " + reference);
+        }
+        return tracked.toStatus(reference);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("orders.ingestion.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        flushTimer = Timer.builder("orders.ingestion.flush").description("Time to commit one batch").register(meterRegistry);
+        confirmTimer = Timer.builder("orders.ingestion.confirm").description("Time from submit to commit").register(meterRegistry);
+        batchSizes = DistributionSummary.builder("orders.ingestion.batch.size").register(meterRegistry);
+        confirmed = Counter.builder("orders.ingestion.confirmed").register(meterRegistry);
+        rejected = Counter.builder("orders.ingestion.rejected").register(meterRegistry);
+        queueFull = Counter.builder("orders.ingestion.queue.full").register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drain, "order-ingestion-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Forget confirmed and rejected orders once clients have had time to poll them.
+     */
+    @Scheduled(fixedDelayString = "${orders.ingestion.status-sweep-ms:60000}")
+    public void evictExpiredStatuses() {
+        long cutoff = System.currentTimeMillis() - statusTtlMs;
+        synchronized (completedReferences) {
+            // Completed in order, so the expired ones are all at the head
+            while (!completedReferences.isEmpty()) {
+                Tracked tracked = statuses.get(completedReferences.peekFirst());
+                if (tracked != null && tracked.completedAt >= cutoff) {
+                    break;
+                }
+                statuses.remove(completedReferences.pollFirst());
+            }
+        }
+    }
+
+    private void drain() {
+        // Keep going after stop() until everything already acknowledged is written.
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order ingestion batch failed unexpectedly", e);
+            }
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        batchSizes.record(batch.size());
+        List<PendingOrder> admitted = screen(batch);
+        if (admitted.isEmpty()) {
+            return;
+        }
+        List<OrderResponse> orders = new ArrayList<>(admitted.size());
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                for (PendingOrder pending : admitted) {
+                    orders.add(orderService.createOrder(pending.request, pending.userEmail));
+                }
+            }));
+            for (int i = 0; i < admitted.size(); i++) {
+                confirm(admitted.get(i), orders.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            for (PendingOrder pending : admitted) {
+                try {
+                    confirm(pending, transactionTemplate.execute(
+                            status -> orderService.createOrder(pending.request, pending.userEmail)));
+                } catch (RuntimeException e) {
+                    reject(pending, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reject the orders current stock cannot cover, returning the rest.
+     * If screening itself fails, every order goes to the batch as before.
+     */
+    private List<PendingOrder> screen(List<PendingOrder> batch) {
+        List<String> rejections;
+        try {
+            rejections = orderService.screen(batch.stream().map(pending -> pending.request).toList());
+        } catch (RuntimeException e) {
+            log.warn("Could not screen order batch, committing it unscreened", e);
+            return batch;
+        }
+        List<PendingOrder> admitted = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (rejections.get(i) == null) {
+                admitted.add(batch.get(i));
+            } else {
+                reject(batch.get(i), rejections.get(i));
+            }
+        }
+        return admitted;
+    }
+
+    private void confirm(PendingOrder pending, OrderResponse order) {
+        pending.tracked.complete(OrderIngestionStatus.State.CONFIRMED, order.getId(), null);
+        completed(pending.reference);
+        confirmed.increment();
+        confirmTimer.record(System.nanoTime() - pending.submittedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private void reject(PendingOrder pending, String message) {
+        log.info("Rejected queued order {}: {}", pending.reference, message);
+        pending.tracked.complete(OrderIngestionStatus.State.REJECTED, null, message);
+        completed(pending.reference);
+        rejected.increment();
+    }
+
+    private void completed(String reference) {
+        synchronized (completedReferences) {
+            completedReferences.addLast(reference);
+            while (completedReferences.size() > maxCompletedStatuses) {
+                statuses.remove(completedReferences.pollFirst());
+            }
+        }
+    }
+
+    private static final class PendingOrder {
+        private final String reference;
+        private final OrderRequest request;
+        private final String userEmail;
+        private final Tracked tracked;
+        private final long submittedAt;
+
+        PendingOrder(String reference, OrderRequest request, String userEmail, Tracked tracked, long submittedAt) {
+            this.reference = reference;
+            this.request = request;
+            this.userEmail = userEmail;
+            this.tracked = tracked;
+            this.submittedAt = submittedAt;
+        }
+    }
+
+    private static final class Tracked {
+        private final String userEmail;
+        private volatile OrderIngestionStatus.State state = OrderIngestionStatus.State.PENDING;
+        private volatile Long orderId;
+        private volatile String message;
+        private volatile long completedAt;
+
+        Tracked(String userEmail) {
+            this.userEmail = userEmail;
+        }
+
+        void complete(OrderIngestionStatus.State state, Long orderId, String message) {
+            this.orderId = orderId;
+            this.message = message;
+            this.completedAt = System.currentTimeMillis();
+            this.state = state;
+        }
+
+        OrderIngestionStatus toStatus(String reference) {
+            return new OrderIngestionStatus(reference, state, orderId, message);
+        }
+    }
+}
@@ -1,17 +1,38 @@
 package com.example.grocerystore.service;
 
+import com.example.grocerystore.dto.OrderHistoryPage;
+import com.example.grocerystore.dto.OrderItemResponse;
 import com.example.grocerystore.dto.OrderRequest;
+import com.example.grocerystore.dto.OrderResponse;
 import com.example.grocerystore.model.Order;
 import com.example.grocerystore.model.OrderItem;
 import com.example.grocerystore.model.Product;
 import com.example.grocerystore.model.User;
 import com.example.grocerystore.repository.OrderRepository;
+import com.example.grocerystore.repository.ShardedOrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for order-related operations.
@@ -21,54 +42,278 @@ import java.util.List;
 @Transactional
 public class OrderService {
 
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
+    private final ShardedOrderRepository shardedOrderRepository;
     private final ProductService productService;
     private final UserService userService;
+    private final FlashSaleService flashSaleService;
 
     /**
      * Create a new order for a user.
+     * Flash sale products are taken from this instance's in-memory counters when
+     * they hold enough; the rest, including flash sale products whose counter ran
+     * short, with conditional updates in ascending product id order. All products are then
+     * loaded with one query (already reflecting the new stock). Any shortfall
+     * throws, rolling back every reservation made for the basket.
+     * The saved order is mapped to its response before the transaction ends.
+     * With sharding enabled the order goes to the user's shard instead, and is
+     * deleted again if this transaction rolls back.
      */
-    public Order createOrder(OrderRequest orderRequest, String userEmail) {
+    public OrderResponse createOrder(OrderRequest orderRequest, String userEmail) {
+        List<OrderRequest.OrderItemRequest> itemRequests = validateItems(orderRequest);
         User user = userService.findByEmail(userEmail);
+
+        // The same product may appear on several lines; reserve its combined quantity once.
+        Map<Long, Integer> quantities = itemRequests.stream()
+                .collect(Collectors.toMap(OrderRequest.OrderItemRequest::getProductId,
+                        OrderRequest.OrderItemRequest::getQuantity, Integer::sum, TreeMap::new));
+
+        FlashSaleService.Reservation flash = flashSaleService.reserve(quantities);
+        Map<Long, Integer> regular = new TreeMap<>(quantities);
+        regular.keySet().removeAll(flash.getRunIds().keySet());
+
+        List<Long> insufficient = new ArrayList<>(productService.reserveStock(regular));
+        Collections.sort(insufficient);
+
+        Map<Long, Product> products = productService.getProductsByIds(quantities.keySet());
+        if (!insufficient.isEmpty()) {
+            throw new RuntimeException("Insufficient stock for product ids: " + insufficient);
+        }
         
+        Order order = buildOrder(user, itemRequests, products, flash.getRunIds());
+
+        if (shardedOrderRepository.isEnabled()) {
+            OrderResponse stored = shardedOrderRepository.insert(user.getId(), order);
+            deleteFromShardOnRollback(user.getId(), stored.getId());
+            return stored;
+        }
+        return toResponse(orderRepository.save(order));
+    }
+
+    /**
+     * Build the order lines at current prices and compute the total.
+     * Lines of products on flash sale carry the sale run id.
+     */
+    static Order buildOrder(User user, List<OrderRequest.OrderItemRequest> itemRequests,
+                            Map<Long, Product> products, Map<Long, Long> flashRunIds) {
         Order order = new Order();
         order.setUser(user);
-        
-        List<OrderItem> orderItems = new ArrayList<>();
+
+        List<OrderItem> orderItems = new ArrayList<>(itemRequests.size());
         double totalAmount = 0.0;
-        
-        for (OrderRequest.OrderItemRequest itemRequest : orderRequest.getItems()) {
-            Product product = productService.getProductById(itemRequest.getProductId());
-            
+
+        for (OrderRequest.OrderItemRequest itemRequest : itemRequests) {
+            Product product = products.get(itemRequest.getProductId());
+
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
             orderItem.setQuantity(itemRequest.getQuantity());
             orderItem.setPrice(product.getPrice());
-            
+            orderItem.setFlashSaleId(flashRunIds.get(product.getId()));
+
             orderItems.add(orderItem);
             totalAmount += product.getPrice() * itemRequest.getQuantity();
         }
-        
+
         order.setOrderItems(orderItems);
         order.setTotalAmount(totalAmount);
-        
-        return orderRepository.save(order);
+        return order;
+    }
+
+    private void deleteFromShardOnRollback(Long userId, Long orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    shardedOrderRepository.delete(userId, orderId);
+                }
+            }
+        });
     }
 
     /**
-     * Get order history for a user.
+     * Check a group of orders against current stock as if they were placed in turn,
+     * returning for each either null or the message createOrder would fail it with.
+     * Flash sale products are left to createOrder. Used to keep orders that would fail
+     * out of a group commit; it reserves nothing, so createOrder still has the last word.
      */
-    public List<Order> getOrderHistory(String userEmail) {
-        User user = userService.findByEmail(userEmail);
-        return orderRepository.findByUserOrderByOrderDateDesc(user);
+    @Transactional(readOnly = true)
+    public List<String> screen(List<OrderRequest> orderRequests) {
+        List<Map<Long, Integer>> baskets = new ArrayList<>(orderRequests.size());
+        Set<Long> productIds = new TreeSet<>();
+        for (OrderRequest orderRequest : orderRequests) {
+            Map<Long, Integer> quantities = validateItems(orderRequest).stream()
+                    .collect(Collectors.toMap(OrderRequest.OrderItemRequest::getProductId,
+                            OrderRequest.OrderItemRequest::getQuantity, Integer::sum, TreeMap::new));
+            baskets.add(quantities);
+            productIds.addAll(quantities.keySet());
+        }
+        Map<Long, Integer> available = productService.getStockLevels(productIds);
+
+        List<String> rejections = new ArrayList<>(baskets.size());
+        for (Map<Long, Integer> quantities : baskets) {
+            List<Long> missing = new ArrayList<>();
+            List<Long> insufficient = new ArrayList<>();
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                Integer stock = available.get(entry.getKey());
+                if (stock == null) {
+                    missing.add(entry.getKey());
+                } else if (!flashSaleService.isActive(entry.getKey()) && stock < entry.getValue()) {
+                    insufficient.add(entry.getKey());
+                }
+            }
+            if (!missing.isEmpty()) {
+                rejections.add("Products not found with ids: " + missing);
+            } else if (!insufficient.isEmpty()) {
+                rejections.add("Insufficient stock for product ids: " + insufficient);
+            } else {
+                quantities.forEach((productId, quantity) -> available.merge(productId, -quantity, Integer::sum));
+                rejections.add(null);
+            }
+        }
+        return rejections;
+    }
+
+    /**
+     * Reject empty baskets and line items without a product or a positive quantity.
+     */
+    static List<OrderRequest.OrderItemRequest> validateItems(OrderRequest orderRequest) {
+        List<OrderRequest.OrderItemRequest> items = orderRequest.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("Order must contain at least one item");
+        }
+        for (OrderRequest.OrderItemRequest item : items) {
+            if (item.getProductId() == null) {
+                throw new RuntimeException("Order item is missing a product id");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid quantity for product id: " + item.getProductId());
+            }
+        }
+        return items;
     }
 
     /**
-     * Get order by ID.
+     * Get one page of a user's order history, newest first.
+     * Uses two queries per page whatever the page size: one for the orders,
+     * one for all their items with product names.
      */
-    public Order getOrderById(Long id) {
-        return orderRepository.findById(id)
+    @Transactional(readOnly = true)
+    public OrderHistoryPage getOrderHistory(String userEmail, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        OrderResponse after = cursor == null ? null : decodeHistoryCursor(cursor);
+        if (shardedOrderRepository.isEnabled()) {
+            Long userId = userService.findByEmail(userEmail).getId();
+            List<OrderResponse> rows = shardedOrderRepository.findHistory(userId,
+                    after == null ? null : after.getOrderDate(), after == null ? null : after.getId(), limit + 1);
+            return historyPage(rows, limit, ids -> shardedOrderRepository.findItems(userId, ids));
+        }
+
+        PageRequest firstRows = PageRequest.of(0, limit + 1);
+        List<OrderResponse> rows = after == null
+                ? orderRepository.findHistory(userEmail, firstRows)
+                : orderRepository.findHistoryBefore(userEmail, after.getOrderDate(), after.getId(), firstRows);
+        return historyPage(rows, limit, orderRepository::findItemsByOrderIds);
+    }
+
+    /**
+     * Trim the extra look-ahead row, attach items with one query and build the next cursor.
+     */
+    private static OrderHistoryPage historyPage(List<OrderResponse> rows, int limit,
+                                                Function<Collection<Long>, List<OrderItemResponse>> itemLoader) {
+        boolean hasMore = rows.size() > limit;
+        List<OrderResponse> page = hasMore ? rows.subList(0, limit) : rows;
+        if (!page.isEmpty()) {
+            Map<Long, OrderResponse> byId = new LinkedHashMap<>();
+            for (OrderResponse order : page) {
+                order.setOrderItems(new ArrayList<>());
+                byId.put(order.getId(), order);
+            }
+            for (OrderItemResponse item : itemLoader.apply(byId.keySet())) {
+                byId.get(item.getOrderId()).getOrderItems().add(item);
+            }
+        }
+        String next = hasMore ? historyCursorAfter(page.get(limit - 1)) : null;
+        return new OrderHistoryPage(new ArrayList<>(page), next);
+    }
+
+    static String historyCursorAfter(OrderResponse order) {
+        String raw = order.getOrderDate() + "|" + order.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderResponse decodeHistoryCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new OrderResponse(Long.valueOf(raw.substring(separator + 1)),
+                    LocalDateTime.parse(raw.substring(0, Math.max(separator, 0))), null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+
+    /**
+     * Get order by ID, loading its owner, items and products in one query.
+     * Throws AccessDeniedException if the order belongs to another user.
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrderById(Long id, String userEmail) {
+        if (shardedOrderRepository.isEnabled()) {
+            Long userId = userService.findByEmail(userEmail).getId();
+            return shardedOrderRepository.findById(userId, id).orElseThrow(() -> shardedOrderRepository.exists(id)
+                    ? new AccessDeniedException("Access denied")
+                    : new RuntimeException("Order not found with id: " + id));
+        }
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
+        if (!order.getUser().getEmail().equals(userEmail)) {
+            throw new AccessDeniedException("Access denied");
+        }
+        return toResponse(order);
+    }
+
+    /**
+     * Newest orders of all customers, for the admin dashboard.
+     * With sharding enabled every shard is queried in parallel and the results merged.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getRecentOrders(int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        if (shardedOrderRepository.isEnabled()) {
+            return shardedOrderRepository.findRecent(limit);
+        }
+        List<OrderResponse> rows = orderRepository.findRecent(PageRequest.of(0, limit));
+        return historyPage(rows, limit, orderRepository::findItemsByOrderIds).getItems();
+    }
+
+    /**
+     * Rebalancing tool: move all of a user's orders to another shard.
+     * Returns the number of orders moved.
+     */
+    public int moveUserOrders(Long userId, int shard) {
+        if (!shardedOrderRepository.isEnabled()) {
+            throw new IllegalStateException("Order sharding is not enabled");
+        }
+        return shardedOrderRepository.moveUser(userId, shard);
+    }
+
+    static OrderResponse toResponse(Order order) {
+        List<OrderItemResponse> items = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            items.add(new OrderItemResponse(order.getId(), item.getId(), item.getProduct().getId(),
+                    item.getProduct().getName(), item.getQuantity(), item.getPrice()));
+        }
+        return new OrderResponse(order.getId(), order.getOrderDate(), order.getTotalAmount(), items);
     }
 }
@@ -0,0 +1,165 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory product catalog serving reads from an immutable snapshot.
+ * Writes made through ProductService swap in a new snapshot once their transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalog {
+
+    private final ProductRepository productRepository;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    // A j.u.c. lock rather than a monitor: reload() holds it across a query, which would pin a virtual thread
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Versions restart on every boot, so tags carry the boot time to stay unique across restarts.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Current snapshot, loading it from the database on first use.
+     */
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Strong entity tag for whole-catalog responses; changes on every catalog write.
+     */
+    public String catalogETag() {
+        return catalogETag(snapshot());
+    }
+
+    /**
+     * Strong entity tag for responses built from the given snapshot.
+     */
+    public String catalogETag(CatalogSnapshot snapshot) {
+        return "c" + epoch + "-" + snapshot.getVersion();
+    }
+
+    /**
+     * Strong entity tag for a single product, or null if it does not exist.
+     */
+    public String productETag(Long id) {
+        return productETag(snapshot(), id);
+    }
+
+    /**
+     * Strong entity tag for a single product in the given snapshot, or null if it does not exist.
+     */
+    public String productETag(CatalogSnapshot snapshot, Long id) {
+        return snapshot.versionOf(id)
+                .map(version -> "p" + epoch + "-" + id + "-" + version)
+                .orElse(null);
+    }
+
+    /**
+     * Reload the catalog once startup data (see DataInitializer) is in place.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * Pick up stock levels changed by checkouts, which update the database directly.
+     * Publishing per checkout would bump the catalog version (and drop cached responses) on every order.
+     */
+    @Scheduled(fixedDelayString = "${catalog.refresh-interval-ms:30000}",
+               initialDelayString = "${catalog.refresh-interval-ms:30000}")
+    public void refreshFromDatabase() {
+        if (current.get() != null) {
+            reload();
+        }
+    }
+
+    /**
+     * Replace the snapshot with the current database contents.
+     * Keeps the current snapshot, and its version, when nothing has changed.
+     */
+    public CatalogSnapshot reload() {
+        writeLock.lock();
+        try {
+            List<Product> products = productRepository.findAll();
+            CatalogSnapshot snapshot = current.get();
+            if (snapshot != null && snapshot.matches(products)) {
+                return snapshot;
+            }
+            CatalogSnapshot next = CatalogSnapshot.of(nextVersion(), products);
+            publish(next);
+            return next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Publish a created or updated product after the surrounding transaction commits.
+     */
+    public void put(Product product) {
+        Product copy = CatalogSnapshot.copyOf(product);
+        afterCommit(() -> apply(snapshot -> snapshot.withProduct(nextVersion(), copy)));
+    }
+
+    /**
+     * Drop a deleted product after the surrounding transaction commits.
+     */
+    public void remove(Long id) {
+        afterCommit(() -> apply(snapshot -> snapshot.withoutProduct(nextVersion(), id)));
+    }
+
+    private void apply(UnaryOperator<CatalogSnapshot> change) {
+        writeLock.lock();
+        try {
+            CatalogSnapshot snapshot = current.get();
+            // Not loaded yet: the first read will pick the change up from the database.
+            if (snapshot != null) {
+                publish(change.apply(snapshot));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void publish(CatalogSnapshot next) {
+        // Build derived indexes on the writer's thread so readers never pay for them.
+        next.getSearchIndex();
+        next.getSuggester();
+        current.set(next);
+    }
+
+    private long nextVersion() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot == null ? 1L : snapshot.getVersion() + 1;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
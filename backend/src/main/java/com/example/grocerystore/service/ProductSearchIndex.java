@@ -0,0 +1,229 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable trigram inverted index over product names.
+ * Answers case-insensitive substring queries; when nothing contains the query,
+ * falls back to typo-tolerant matching ranked by the share of query trigrams found.
+ */
+public final class ProductSearchIndex {
+
+    /**
+     * Minimum fraction of the query's trigrams a name must contain to count as a fuzzy match.
+     */
+    static final double MIN_FUZZY_SCORE = 0.5;
+
+    private static final long[] NO_GRAMS = new long[0];
+
+    private final Product[] products;
+    private final String[] names;
+    private final Map<Long, int[]> postings;
+
+    private ProductSearchIndex(Product[] products, String[] names, Map<Long, int[]> postings) {
+        this.products = products;
+        this.names = names;
+        this.postings = postings;
+    }
+
+    /**
+     * Build an index over the given products; posting lists hold positions in that list.
+     */
+    public static ProductSearchIndex build(List<Product> products) {
+        Product[] docs = products.toArray(new Product[0]);
+        String[] names = new String[docs.length];
+        Map<Long, IntBuffer> buffers = new HashMap<>();
+
+        for (int doc = 0; doc < docs.length; doc++) {
+            names[doc] = normalize(docs[doc].getName());
+            for (long gram : trigrams(names[doc])) {
+                buffers.computeIfAbsent(gram, key -> new IntBuffer()).add(doc);
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(buffers.size() * 2);
+        buffers.forEach((gram, buffer) -> postings.put(gram, buffer.toArray()));
+        return new ProductSearchIndex(docs, names, postings);
+    }
+
+    /**
+     * Find products whose name contains the query (case-insensitive), best matches first.
+     * If there are none, return fuzzy matches ranked by trigram overlap instead.
+     */
+    public List<Product> search(String query) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return new ArrayList<>(Arrays.asList(products));
+        }
+        if (needle.length() < 3) {
+            return toProducts(rankExact(scan(needle), needle));
+        }
+
+        long[] grams = trigrams(needle);
+        List<Integer> exact = rankExact(candidates(grams, needle), needle);
+        return exact.isEmpty() ? fuzzy(grams) : toProducts(exact);
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    private List<Integer> scan(String needle) {
+        List<Integer> docs = new ArrayList<>();
+        for (int doc = 0; doc < names.length; doc++) {
+            if (names[doc].contains(needle)) {
+                docs.add(doc);
+            }
+        }
+        return docs;
+    }
+
+    private List<Integer> candidates(long[] grams, String needle) {
+        int[][] lists = new int[grams.length][];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new ArrayList<>();
+            }
+        }
+        // Intersect shortest lists first so the working set shrinks quickly.
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] common = lists[0];
+        for (int i = 1; i < lists.length && common.length > 0; i++) {
+            common = intersect(common, lists[i]);
+        }
+
+        // Trigram hits can be scattered across the name, so confirm the actual substring.
+        List<Integer> docs = new ArrayList<>(common.length);
+        for (int doc : common) {
+            if (names[doc].contains(needle)) {
+                docs.add(doc);
+            }
+        }
+        return docs;
+    }
+
+    private List<Product> fuzzy(long[] grams) {
+        int[] shared = new int[products.length];
+        for (long gram : grams) {
+            int[] posting = postings.get(gram);
+            if (posting != null) {
+                for (int doc : posting) {
+                    shared[doc]++;
+                }
+            }
+        }
+
+        int minShared = Math.max(1, (int) Math.ceil(grams.length * MIN_FUZZY_SCORE));
+        List<Integer> docs = new ArrayList<>();
+        for (int doc = 0; doc < shared.length; doc++) {
+            if (shared[doc] >= minShared) {
+                docs.add(doc);
+            }
+        }
+        docs.sort(Comparator.<Integer>comparingInt(doc -> -shared[doc])
+                .thenComparingInt(doc -> names[doc].length())
+                .thenComparingInt(doc -> doc));
+        return toProducts(docs);
+    }
+
+    /**
+     * Order substring hits: exact name, then prefix, then word start, then anywhere;
+     * shorter names first within each group.
+     */
+    private List<Integer> rankExact(List<Integer> docs, String needle) {
+        docs.sort(Comparator.<Integer>comparingInt(doc -> matchRank(names[doc], needle))
+                .thenComparingInt(doc -> names[doc].length())
+                .thenComparingInt(doc -> doc));
+        return docs;
+    }
+
+    private List<Product> toProducts(List<Integer> docs) {
+        List<Product> result = new ArrayList<>(docs.size());
+        for (int doc : docs) {
+            result.add(products[doc]);
+        }
+        return result;
+    }
+
+    private static int matchRank(String name, String needle) {
+        if (name.equals(needle)) {
+            return 0;
+        }
+        if (name.startsWith(needle)) {
+            return 1;
+        }
+        // The first occurrence may be inside a word while a later one starts a word
+        for (int at = name.indexOf(needle); at >= 0; at = name.indexOf(needle, at + 1)) {
+            if (at > 0 && !Character.isLetterOrDigit(name.charAt(at - 1))) {
+                return 2;
+            }
+        }
+        return 3;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] out = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                out[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of already-normalized text, each packed into a long (16 bits per char).
+     */
+    static long[] trigrams(String text) {
+        int count = text.length() - 2;
+        if (count <= 0) {
+            return NO_GRAMS;
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    /**
+     * Growable int array used while building posting lists.
+     */
+    private static final class IntBuffer {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
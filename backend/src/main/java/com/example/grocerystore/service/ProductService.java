@@ -1,12 +1,26 @@
 package com.example.grocerystore.service;
 
+import com.example.grocerystore.dto.ProductPage;
 import com.example.grocerystore.model.Product;
 import com.example.grocerystore.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 /**
  * Service class for product-related operations.
@@ -16,55 +30,205 @@ import java.util.List;
 @Transactional
 public class ProductService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final FlashSaleService flashSaleService;
+
+    @Value("${catalog.search.index-enabled:true}")
+    private boolean searchIndexEnabled = true;
 
     /**
-     * Get all products.
+     * Get all products (served from the in-memory catalog).
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return productCatalog.snapshot().getProducts();
     }
 
     /**
-     * Get product by ID.
+     * Entity tag for a single product, or null if it does not exist.
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getProductETag(Long id) {
+        return productCatalog.productETag(id);
+    }
+
+    /**
+     * Get one keyset page of products from the in-memory catalog.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductPage getProductPage(ProductSort sort, String cursor, int limit) {
+        return pageOf(productCatalog.snapshot(), sort, cursor, limit);
+    }
+
+    /**
+     * Get one keyset page of products straight from the database (Admin view).
+     */
+    @Transactional(readOnly = true)
+    public ProductPage getProductPageFromDatabase(ProductSort sort, String cursor, int limit) {
+        int size = pageSize(limit);
+        Pageable window = PageRequest.of(0, size + 1);
+        if (cursor == null) {
+            return sort.toPage(productRepository.findPage(PageRequest.of(0, size + 1, sort.toSort())), size);
+        }
+
+        Product after = sort.decodeCursor(cursor);
+        List<Product> rows = switch (sort) {
+            case ID -> productRepository.findPageAfterId(after.getId(), window);
+            case PRICE -> productRepository.findPageAfterPrice(after.getPrice(), after.getId(), window);
+            case PRICE_DESC -> productRepository.findPageAfterPriceDesc(after.getPrice(), after.getId(), window);
+            case NAME -> productRepository.findPageAfterName(after.getNameKey(), after.getId(), window);
+            case NAME_DESC -> productRepository.findPageAfterNameDesc(after.getNameKey(), after.getId(), window);
+        };
+        return sort.toPage(rows, size);
+    }
+
+    /**
+     * Get product by ID (served from the in-memory catalog).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
+        return productCatalog.snapshot().find(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+    }
+
+    /**
+     * Get a product and its entity tag from one catalog snapshot, so the two always agree.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TaggedProduct getTaggedProduct(Long id) {
+        CatalogSnapshot snapshot = productCatalog.snapshot();
+        Product product = snapshot.find(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        return new TaggedProduct(productCatalog.productETag(snapshot, id), product);
+    }
+
+    /**
+     * Load the given products from the database in a single query, keyed and ordered by id.
+     * Fails listing every missing id at once rather than stopping at the first.
+     */
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        Set<Long> sortedIds = new TreeSet<>(ids);
+        Map<Long, Product> products = new LinkedHashMap<>();
+        for (Product product : productRepository.findByIdInOrderByIdAsc(sortedIds)) {
+            products.put(product.getId(), product);
+        }
+
+        if (products.size() < sortedIds.size()) {
+            List<Long> missing = sortedIds.stream()
+                    .filter(id -> !products.containsKey(id))
+                    .collect(Collectors.toList());
+            throw new RuntimeException("Products not found with ids: " + missing);
+        }
+        return products;
     }
 
     /**
-     * Search products by name.
+     * Current stock of the given products in one query; ids that do not exist are left out.
      */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getStockLevels(Collection<Long> ids) {
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Product product : productRepository.findByIdInOrderByIdAsc(new TreeSet<>(ids))) {
+            stock.put(product.getId(), product.getQuantity());
+        }
+        return stock;
+    }
+
+    /**
+     * Take stock for each product with a conditional set-based update, never read-modify-write.
+     * Rows are updated in ascending id order so concurrent checkouts lock them in the same order.
+     * Returns the ids that lacked stock (or do not exist); the caller must fail the transaction if any are returned.
+     */
+    public List<Long> reserveStock(Map<Long, Integer> quantities) {
+        List<Long> insufficient = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            if (productRepository.decrementStock(entry.getKey(), entry.getValue()) == 0) {
+                insufficient.add(entry.getKey());
+            }
+        }
+        return insufficient;
+    }
+
+    /**
+     * Search products by name using the in-memory trigram index,
+     * or the repository LIKE query when the index is disabled.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Product> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name);
+        if (!searchIndexEnabled) {
+            return productRepository.findByNameContainingIgnoreCase(name);
+        }
+        return productCatalog.snapshot().getSearchIndex().search(name);
+    }
+
+    /**
+     * Autocomplete suggestions for the search box, served from the in-memory prefix index.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Product> suggestProducts(String prefix, int limit) {
+        return productCatalog.snapshot().getSuggester().suggest(prefix, limit);
     }
 
     /**
      * Create a new product (Admin only).
      */
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productCatalog.put(savedProduct);
+        return savedProduct;
     }
 
     /**
      * Update an existing product (Admin only).
      */
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = getProductById(id);
+        Product product = loadProduct(id);
+        if (flashSaleService.isActive(id) && !product.getQuantity().equals(productDetails.getQuantity())) {
+            throw new RuntimeException("Stop the flash sale before changing stock of product id: " + id);
+        }
         
         product.setName(productDetails.getName());
         product.setPrice(productDetails.getPrice());
         product.setQuantity(productDetails.getQuantity());
         
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        productCatalog.put(savedProduct);
+        return savedProduct;
     }
 
     /**
      * Delete a product (Admin only).
      */
     public void deleteProduct(Long id) {
-        Product product = getProductById(id);
+        if (flashSaleService.isActive(id)) {
+            throw new RuntimeException("Stop the flash sale before deleting product id: " + id);
+        }
+        Product product = loadProduct(id);
         productRepository.delete(product);
+        productCatalog.remove(id);
+    }
+
+    /**
+     * One keyset page of the given snapshot.
+     */
+    static ProductPage pageOf(CatalogSnapshot snapshot, ProductSort sort, String cursor, int limit) {
+        int size = pageSize(limit);
+        Product after = cursor == null ? null : sort.decodeCursor(cursor);
+        return sort.toPage(snapshot.page(sort, after, size + 1), size);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Load the managed entity for a write; catalog copies must never be modified.
+     */
+    private Product loadProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 }
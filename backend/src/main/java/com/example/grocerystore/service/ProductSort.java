@@ -0,0 +1,122 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.ProductPage;
+import com.example.grocerystore.model.Product;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Supported product listing orders. Every order ends with the id so keyset
+ * cursors are unambiguous even when prices or names repeat. Name orders compare
+ * the lower-cased {@link Product#getNameKey()} on both the catalog and database paths.
+ */
+public enum ProductSort {
+
+    ID("id", Comparator.comparing(Product::getId),
+            Sort.by(Sort.Order.asc("id"))),
+    PRICE("price", Comparator.comparing(Product::getPrice).thenComparing(Product::getId),
+            Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"))),
+    PRICE_DESC("-price", Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed(),
+            Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"))),
+    NAME("name", Comparator.comparing(Product::getNameKey).thenComparing(Product::getId),
+            Sort.by(Sort.Order.asc("nameKey"), Sort.Order.asc("id"))),
+    NAME_DESC("-name", Comparator.comparing(Product::getNameKey).thenComparing(Product::getId).reversed(),
+            Sort.by(Sort.Order.desc("nameKey"), Sort.Order.desc("id")));
+
+    private static final char SEPARATOR = '|';
+
+    private final String param;
+    private final Comparator<Product> comparator;
+    private final Sort sort;
+
+    ProductSort(String param, Comparator<Product> comparator, Sort sort) {
+        this.param = param;
+        this.comparator = comparator;
+        this.sort = sort;
+    }
+
+    /**
+     * Resolve the {@code sort} request parameter: id, price, -price, name or -name.
+     */
+    public static ProductSort fromParam(String param) {
+        for (ProductSort value : values()) {
+            if (value.param.equalsIgnoreCase(param)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + param);
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public Comparator<Product> comparator() {
+        return comparator;
+    }
+
+    public Sort toSort() {
+        return sort;
+    }
+
+    /**
+     * Trim a window fetched with one extra row to {@code size} items and derive the next cursor from it.
+     */
+    public ProductPage toPage(List<Product> rows, int size) {
+        if (rows.size() <= size) {
+            return new ProductPage(new ArrayList<>(rows), null);
+        }
+        List<Product> items = new ArrayList<>(rows.subList(0, size));
+        return new ProductPage(items, cursorAfter(items.get(size - 1)));
+    }
+
+    /**
+     * Opaque cursor pointing just past the given product in this order.
+     */
+    public String cursorAfter(Product product) {
+        String key = switch (this) {
+            case ID -> "";
+            case PRICE, PRICE_DESC -> String.valueOf(product.getPrice());
+            case NAME, NAME_DESC -> product.getName();
+        };
+        String raw = param + SEPARATOR + key + SEPARATOR + product.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor issued by {@link #cursorAfter} into a probe product holding the sort key and id.
+     */
+    public Product decodeCursor(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        int first = raw.indexOf(SEPARATOR);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first < 0 || first == last || !raw.substring(0, first).equals(param)) {
+            throw new IllegalArgumentException("Cursor does not match sort " + param);
+        }
+
+        Product probe = new Product();
+        String key = raw.substring(first + 1, last);
+        try {
+            probe.setId(Long.valueOf(raw.substring(last + 1)));
+            switch (this) {
+                case PRICE, PRICE_DESC -> probe.setPrice(Double.valueOf(key));
+                case NAME, NAME_DESC -> probe.setName(key);
+                default -> { }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return probe;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable prefix index for search-box autocomplete.
+ * Keeps case-folded keys in sorted arrays so a lookup is one binary search
+ * plus a scan bounded by the requested limit. Whole-name prefixes rank ahead
+ * of matches at a later word ("bre" suggests "Bread" before "Chicken Breast").
+ */
+public final class ProductSuggester {
+
+    private final Product[] products;
+    private final String[] nameKeys;
+    private final int[] nameDocs;
+    private final String[] wordKeys;
+    private final int[] wordDocs;
+
+    private ProductSuggester(Product[] products, String[] nameKeys, int[] nameDocs,
+                             String[] wordKeys, int[] wordDocs) {
+        this.products = products;
+        this.nameKeys = nameKeys;
+        this.nameDocs = nameDocs;
+        this.wordKeys = wordKeys;
+        this.wordDocs = wordDocs;
+    }
+
+    /**
+     * Build a suggester over the given products.
+     */
+    public static ProductSuggester build(List<Product> products) {
+        Product[] docs = products.toArray(new Product[0]);
+        List<Entry> names = new ArrayList<>(docs.length);
+        List<Entry> words = new ArrayList<>();
+
+        for (int doc = 0; doc < docs.length; doc++) {
+            String name = ProductSearchIndex.normalize(docs[doc].getName());
+            names.add(new Entry(name, doc));
+            for (int i = 1; i < name.length(); i++) {
+                if (!Character.isLetterOrDigit(name.charAt(i - 1)) && Character.isLetterOrDigit(name.charAt(i))) {
+                    words.add(new Entry(name.substring(i), doc));
+                }
+            }
+        }
+
+        names.sort(Entry.ORDER);
+        words.sort(Entry.ORDER);
+        return new ProductSuggester(docs,
+                names.stream().map(Entry::key).toArray(String[]::new),
+                names.stream().mapToInt(Entry::doc).toArray(),
+                words.stream().map(Entry::key).toArray(String[]::new),
+                words.stream().mapToInt(Entry::doc).toArray());
+    }
+
+    /**
+     * Up to {@code limit} products whose name, or a later word in it, starts with the prefix.
+     */
+    public List<Product> suggest(String prefix, int limit) {
+        String key = ProductSearchIndex.normalize(prefix).trim();
+        List<Product> result = new ArrayList<>(Math.min(limit, 16));
+        if (key.isEmpty() || limit <= 0) {
+            return result;
+        }
+
+        BitSet seen = new BitSet(products.length);
+        collect(nameKeys, nameDocs, key, limit, seen, result);
+        collect(wordKeys, wordDocs, key, limit, seen, result);
+        return result;
+    }
+
+    public int size() {
+        return products.length;
+    }
+
+    private void collect(String[] keys, int[] docs, String prefix, int limit, BitSet seen, List<Product> result) {
+        for (int i = lowerBound(keys, prefix); i < keys.length && result.size() < limit; i++) {
+            if (!keys[i].startsWith(prefix)) {
+                return;
+            }
+            if (!seen.get(docs[i])) {
+                seen.set(docs[i]);
+                result.add(products[docs[i]]);
+            }
+        }
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int index = Arrays.binarySearch(keys, prefix);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Walk back over duplicates so every product sharing the key is considered.
+        while (index > 0 && keys[index - 1].equals(prefix)) {
+            index--;
+        }
+        return index;
+    }
+
+    private static final class Entry {
+        static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingInt(Entry::doc);
+
+        private final String key;
+        private final int doc;
+
+        Entry(String key, int doc) {
+            this.key = key;
+            this.doc = doc;
+        }
+
+        String key() {
+            return key;
+        }
+
+        int doc() {
+            return doc;
+        }
+    }
+}
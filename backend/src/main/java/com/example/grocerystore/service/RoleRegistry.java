@@ -0,0 +1,48 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permanent in-memory registry of roles by name.
+ * Roles are seeded at startup and never change, so all of them are loaded once
+ * when the application is ready; later names are loaded on first use.
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private final Map<String, Role> roles = new ConcurrentHashMap<>();
+
+    /**
+     * Load every role after startup seeding, so registrations never query for them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        for (Role role : roleRepository.findAll()) {
+            roles.putIfAbsent(role.getName(), role);
+        }
+    }
+
+    /**
+     * Get a role by name, loading it on first use.
+     */
+    public Role get(String name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            role = roleRepository.findByName(name)
+                    .orElseThrow(() -> new RuntimeException("Role not found"));
+            roles.putIfAbsent(name, role);
+        }
+        return role;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.grocerystore.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock counter split across stripes so concurrent checkouts of the
+ * same product rarely contend on one memory location. A take first tries to CAS
+ * a single stripe; only when no stripe holds enough on its own does it fall
+ * back to a lock that pools every stripe. The total never goes negative.
+ */
+public final class StripedStockCounter {
+
+    // Stripes sit a cache line apart (8 longs) to avoid false sharing.
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    public StripedStockCounter(int stripes, long initial) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, initial / stripes + (i < initial % stripes ? 1 : 0));
+        }
+    }
+
+    /**
+     * Take {@code units} if that many are available in total.
+     */
+    public boolean tryTake(long units) {
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            int cell = ((home + i) % stripes) * PADDING;
+            long value = cells.get(cell);
+            while (value >= units) {
+                if (cells.compareAndSet(cell, value, value - units)) {
+                    return true;
+                }
+                value = cells.get(cell);
+            }
+        }
+        return takePooled(units, home);
+    }
+
+    /**
+     * Return units, e.g. when the order that took them rolls back.
+     */
+    public void add(long units) {
+        cells.getAndAdd(home() * PADDING, units);
+    }
+
+    /**
+     * Units currently available; a moving estimate while takes are in progress.
+     */
+    public long available() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+
+    private synchronized boolean takePooled(long units, int home) {
+        long pooled = 0;
+        for (int i = 0; i < stripes; i++) {
+            pooled += cells.getAndSet(i * PADDING, 0);
+        }
+        boolean taken = pooled >= units;
+        if (taken) {
+            pooled -= units;
+        }
+        cells.getAndAdd(home * PADDING, pooled);
+        return taken;
+    }
+
+    private int home() {
+        return (int) (Thread.currentThread().getId() % stripes);
+    }
+}
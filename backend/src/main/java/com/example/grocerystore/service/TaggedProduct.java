@@ -0,0 +1,25 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+
+/**
+ * A product together with the entity tag of the catalog snapshot it was read from.
+ */
+public final class TaggedProduct {
+
+    private final String eTag;
+    private final Product product;
+
+    TaggedProduct(String eTag, Product product) {
+        this.eTag = eTag;
+        this.product = product;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+}
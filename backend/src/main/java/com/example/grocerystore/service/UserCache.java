@@ -0,0 +1,159 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-based cache of users and their roles, keyed by email and by id.
+ * Callers always receive their own copy, so a cached user is never shared or
+ * modified. UserService evicts a user after any committed change to it; a load
+ * that overlapped an eviction is returned but not cached, so it cannot put the
+ * old row back. Eviction is local to this instance: other instances, and loads
+ * from a lagging replica, may serve the previous profile for up to the TTL.
+ * Authentication therefore does not use this cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${users.cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    @Value("${users.cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("users.cache.hits").description("User lookups served from memory").register(meterRegistry);
+        misses = Counter.builder("users.cache.misses").description("User lookups that went to the database").register(meterRegistry);
+    }
+
+    /**
+     * Get a user by email, calling the loader on a miss or after the TTL.
+     */
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        return lookup(byEmail.get(email), loader);
+    }
+
+    /**
+     * Get a user by id, calling the loader on a miss or after the TTL.
+     */
+    public Optional<User> getById(Long id, Supplier<Optional<User>> loader) {
+        return lookup(byId.get(id), loader);
+    }
+
+    /**
+     * Drop a user from both indexes.
+     */
+    public void evict(Long id, String email) {
+        evictions.incrementAndGet();
+        if (id != null) {
+            byId.remove(id);
+        }
+        if (email != null) {
+            byEmail.remove(email);
+        }
+    }
+
+    public double hitCount() {
+        return hits.count();
+    }
+
+    public double missCount() {
+        return misses.count();
+    }
+
+    private Optional<User> lookup(Entry entry, Supplier<Optional<User>> loader) {
+        long now = System.currentTimeMillis();
+        if (entry != null && now - entry.loadedAt <= ttlMs) {
+            hits.increment();
+            return Optional.of(copyOf(entry.user));
+        }
+
+        misses.increment();
+        long generation = evictions.get();
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> {
+            if (evictions.get() != generation) {
+                return;
+            }
+            if (byId.size() >= maxSize) {
+                evictOldest(now);
+            }
+            Entry fresh = new Entry(copyOf(user), now);
+            byId.put(user.getId(), fresh);
+            byEmail.put(user.getEmail(), fresh);
+            // An eviction that ran between the check and the puts may have missed them
+            if (evictions.get() != generation) {
+                byId.remove(user.getId(), fresh);
+                byEmail.remove(user.getEmail(), fresh);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Make room: drop expired entries, then, if still full, an arbitrary half.
+     */
+    private void evictOldest(long now) {
+        byId.values().removeIf(entry -> now - entry.loadedAt > ttlMs);
+        byEmail.values().removeIf(entry -> now - entry.loadedAt > ttlMs);
+        if (byId.size() >= maxSize) {
+            int toRemove = byId.size() / 2;
+            Iterator<Entry> entries = byId.values().iterator();
+            while (toRemove-- > 0 && entries.hasNext()) {
+                Entry entry = entries.next();
+                entries.remove();
+                byEmail.remove(entry.user.getEmail(), entry);
+            }
+        }
+    }
+
+    static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setPassword(user.getPassword());
+        copy.setAddress(user.getAddress());
+        copy.setContactNumber(user.getContactNumber());
+        copy.setTokenVersion(user.getTokenVersion());
+        copy.setNameKey(user.getNameKey());
+        copy.setSurnameKey(user.getSurnameKey());
+        copy.setEmailKey(user.getEmailKey());
+        copy.setRoles(user.getRoles() == null ? null : new HashSet<>(user.getRoles()));
+        return copy;
+    }
+
+    private static final class Entry {
+        private final User user;
+        private final long loadedAt;
+
+        Entry(User user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
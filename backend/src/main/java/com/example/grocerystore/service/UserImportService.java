@@ -0,0 +1,260 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.UserImportRequest;
+import com.example.grocerystore.dto.UserImportResult;
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.model.User;
+import com.example.grocerystore.repository.UserRepository;
+import com.example.grocerystore.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streams customers from the legacy system into the users table.
+ * Records are read one at a time from a JSON array or newline-delimited JSON,
+ * grouped into chunks and each chunk is committed in one transaction, so its
+ * users and user_roles rows go out as JDBC batches. Emails already registered
+ * are skipped with one lookup per chunk.
+ *
+ * Plain-text passwords are hashed on the import's own thread pool with the
+ * unbounded BCrypt encoder, so a large import neither queues behind sign-ins nor
+ * takes their hashing slots. If the import stops part way, chunks already
+ * committed stay committed and the result says where it stopped.
+ *
+ * Throughput in the thousands of users per second applies to records carrying a
+ * BCrypt hash, which are stored as they are. Plain-text passwords are bound by
+ * full-cost BCrypt, roughly ten hashes per second per hashing thread, so legacy
+ * exports should supply hashes wherever the old system has them.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    static final int MAX_ERRORS = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./A-Za-z0-9]{53}$");
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${users.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${users.import.hashing-threads:0}")
+    private int hashingThreads = 0;
+
+    private PasswordEncoder hashingEncoder;
+    private ExecutorService hashingExecutor;
+
+    @PostConstruct
+    void init() {
+        hashingEncoder = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.unbounded() : passwordEncoder;
+        AtomicInteger threadCount = new AtomicInteger();
+        // By default the other half of the CPUs, next to the sign-in hashing threads
+        int poolSize = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        hashingExecutor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        hashingExecutor.shutdownNow();
+    }
+
+    /**
+     * Import every record of the stream, returning how many were imported, skipped and rejected.
+     * A malformed stream or a failed chunk ends the import early with {@code abortReason} set.
+     */
+    public UserImportResult importUsers(InputStream input) {
+        UserImportResult result = new UserImportResult();
+        Role userRole = roleRegistry.get("ROLE_USER");
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long recordNumber = 0;
+
+        try (MappingIterator<UserImportRequest> records =
+                     objectMapper.readerFor(UserImportRequest.class).readValues(input)) {
+            while (records.hasNextValue()) {
+                UserImportRequest record = records.nextValue();
+                recordNumber++;
+                String error = validate(record);
+                if (error != null) {
+                    reject(result, recordNumber, error);
+                    continue;
+                }
+                chunk.add(new Row(recordNumber, record));
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, userRole, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, userRole, result);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("User import stopped after record {} after importing {} users", recordNumber, result.getImported(), e);
+            result.setAbortReason("stopped after record " + recordNumber + ": " + e.getMessage());
+        }
+        return result;
+    }
+
+    private void importChunk(List<Row> chunk, Role userRole, UserImportResult result) {
+        Set<String> existing = userRepository.findExistingEmails(
+                chunk.stream().map(row -> row.record.getEmail()).collect(Collectors.toList()));
+
+        // Emails already registered, or repeated earlier in this chunk, are skipped
+        Set<String> seen = new HashSet<>(existing);
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (seen.add(row.record.getEmail())) {
+                fresh.add(row);
+            } else {
+                result.setSkipped(result.getSkipped() + 1);
+            }
+        }
+
+        List<User> users = hash(fresh, userRole);
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            result.setImported(result.getImported() + users.size());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took one of the emails; retry the chunk user by user
+            for (int i = 0; i < users.size(); i++) {
+                importOne(fresh.get(i), toUser(fresh.get(i).record, userRole, users.get(i).getPassword()), result);
+            }
+        }
+    }
+
+    private void importOne(Row row, User user, UserImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+            result.setImported(result.getImported() + 1);
+        } catch (DataIntegrityViolationException e) {
+            if (userRepository.existsByEmail(user.getEmail())) {
+                result.setSkipped(result.getSkipped() + 1);
+            } else {
+                reject(result, row.recordNumber, "could not be stored");
+            }
+        }
+    }
+
+    /**
+     * Build the chunk's users, hashing plain-text passwords in parallel on the import's own threads.
+     */
+    private List<User> hash(List<Row> rows, Role userRole) {
+        List<Future<User>> futures = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            futures.add(hashingExecutor.submit(() -> toUser(row.record, userRole)));
+        }
+        List<User> users = new ArrayList<>(rows.size());
+        try {
+            for (Future<User> future : futures) {
+                users.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing imported passwords");
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return users;
+    }
+
+    private User toUser(UserImportRequest record, Role userRole) {
+        String hash = record.getPasswordHash() != null
+                ? record.getPasswordHash()
+                : hashingEncoder.encode(record.getPassword());
+        return toUser(record, userRole, hash);
+    }
+
+    private static User toUser(UserImportRequest record, Role userRole, String passwordHash) {
+        User user = new User();
+        user.setName(record.getName().trim());
+        user.setEmail(record.getEmail());
+        user.setAddress(record.getAddress().trim());
+        user.setContactNumber(record.getContactNumber());
+        user.setPassword(passwordHash);
+        user.setRoles(new HashSet<>(Collections.singleton(userRole)));
+        return user;
+    }
+
+    /**
+     * Why the record cannot be imported, or null if it is valid.
+     */
+    static String validate(UserImportRequest record) {
+        if (isBlank(record.getName()) || isBlank(record.getEmail()) || isBlank(record.getAddress())
+                || isBlank(record.getContactNumber())) {
+            return "name, email, address and contactNumber are required";
+        }
+        if (record.getEmail().indexOf('@') < 1) {
+            return "invalid email";
+        }
+        if (record.getContactNumber().length() > 10) {
+            return "contactNumber must be at most 10 characters";
+        }
+        if (record.getPasswordHash() != null) {
+            return BCRYPT_HASH.matcher(record.getPasswordHash()).matches() ? null : "passwordHash must be a BCrypt hash";
+        }
+        return isBlank(record.getPassword()) ? "password or passwordHash is required" : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void reject(UserImportResult result, long recordNumber, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_ERRORS) {
+            result.getErrors().add(recordNumber + ": " + error);
+        }
+    }
+
+    private static final class Row {
+        private final long recordNumber;
+        private final UserImportRequest record;
+
+        Row(long recordNumber, UserImportRequest record) {
+            this.recordNumber = recordNumber;
+            this.record = record;
+        }
+    }
+}
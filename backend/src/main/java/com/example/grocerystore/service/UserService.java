@@ -1,20 +1,30 @@
 package com.example.grocerystore.service;
 
+import com.example.grocerystore.config.ReplicaRoutingDataSource;
+import com.example.grocerystore.dto.UserResponse;
+import com.example.grocerystore.dto.UserSearchPage;
 import com.example.grocerystore.model.Role;
 import com.example.grocerystore.model.User;
-import com.example.grocerystore.repository.RoleRepository;
 import com.example.grocerystore.repository.UserRepository;
+import com.example.grocerystore.security.TokenVersionCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service class for user-related operations.
@@ -24,50 +34,98 @@ import java.util.Set;
 @Transactional
 public class UserService implements UserDetailsService {
 
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
+    private final UserCache userCache;
 
+    /**
+     * Load a user for authentication. Read from the primary and never from the user
+     * cache, so a new password or role change takes effect at once on every instance,
+     * and a user can sign in right after registering even while the replica lags.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        return ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
     /**
      * Register a new user with USER role.
+     * The password is hashed before any transaction or connection is taken, and
+     * duplicate emails are detected by the unique constraint instead of a pre-check query.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User registerUser(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
-        }
-
-        // Encode password
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
-        // Assign USER role
-        Role userRole = roleRepository.findByName("ROLE_USER")
-                .orElseThrow(() -> new RuntimeException("Role not found"));
-        
         Set<Role> roles = new HashSet<>();
-        roles.add(userRole);
+        roles.add(roleRegistry.get("ROLE_USER"));
         user.setRoles(roles);
 
-        return userRepository.save(user);
+        User saved;
+        try {
+            // Inserted and committed by the repository's own short transaction
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Only the failure path pays for the lookup that tells a taken email from other violations
+            if (userRepository.existsByEmail(user.getEmail())) {
+                throw new EmailAlreadyRegisteredException("Email already exists");
+            }
+            throw e;
+        }
+        evictAfterCommit(saved);
+        return saved;
     }
 
     /**
-     * Search users by name (for admin functionality).
+     * Search users for the admin page, one page at a time in id order.
+     * A query containing '@' matches email prefixes, a query of digits matches
+     * contact number prefixes, anything else matches the start of the full name
+     * or of the last name. Every mode is an indexed prefix lookup returning DTOs directly.
      */
-    public List<User> searchUsersByName(String name) {
-        return userRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(readOnly = true)
+    public UserSearchPage searchUsers(String query, Long after, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        String term = User.searchKey(query);
+        if (term == null || term.isEmpty()) {
+            throw new IllegalArgumentException("search query must not be empty");
+        }
+        String prefix = escapeLike(term) + "%";
+        long afterId = after == null ? 0L : after;
+        PageRequest firstRows = PageRequest.of(0, limit + 1);
+
+        List<UserResponse> rows;
+        if (term.indexOf('@') >= 0) {
+            rows = userRepository.searchByEmail(prefix, afterId, firstRows);
+        } else if (term.chars().allMatch(Character::isDigit)) {
+            rows = userRepository.searchByContactNumber(prefix, afterId, firstRows);
+        } else {
+            rows = userRepository.searchByName(prefix, afterId, firstRows);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<UserResponse> page = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        return new UserSearchPage(page, hasMore ? page.get(limit - 1).getId() : null);
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
      * Find user by email.
+     * Served from the user cache; the result is a detached copy.
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public User findByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userCache.getByEmail(email, () -> userRepository.findByEmail(email))
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
@@ -82,11 +140,43 @@ public class UserService implements UserDetailsService {
         existingUser.setAddress(user.getAddress());
         existingUser.setContactNumber(user.getContactNumber());
 
-        // Only update password if provided
+        // Only update password if provided; a new password revokes existing tokens
         if (user.getPassword() != null && !user.getPassword().isEmpty()) {
             existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
+            revokeTokens(existingUser);
         }
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        evictAfterCommit(saved);
+        return saved;
+    }
+
+    /**
+     * Invalidate every token issued to the user, e.g. after a password reset or role change.
+     */
+    public void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        Long userId = user.getId();
+        afterCommit(() -> tokenVersionCache.evict(userId));
+        evictAfterCommit(user);
+    }
+
+    private void evictAfterCommit(User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        afterCommit(() -> userCache.evict(userId, email));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
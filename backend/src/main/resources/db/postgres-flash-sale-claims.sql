@@ -0,0 +1,9 @@
+-- One-off migration for PostgreSQL databases created while flash sales flushed sold units back
+-- to products.quantity. Run before starting a release where instances claim flash sale stock.
+-- Stop every flash sale first, so no run still has units waiting to be flushed. Safe to re-run.
+
+ALTER TABLE flash_sales ADD COLUMN IF NOT EXISTS claimed_units BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE flash_sales ADD COLUMN IF NOT EXISTS returned_units BIGINT NOT NULL DEFAULT 0;
+-- Runs that ended under the old scheme have nothing left to hand back.
+ALTER TABLE flash_sales ADD COLUMN IF NOT EXISTS settled BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE flash_sales DROP COLUMN IF EXISTS flushed_units;
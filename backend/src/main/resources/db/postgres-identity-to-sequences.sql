@@ -0,0 +1,23 @@
+-- One-off migration for PostgreSQL databases created while ids were IDENTITY columns.
+-- Run before starting a release that uses sequence ids. Safe to re-run.
+-- Each sequence increments by 50 to match allocationSize on the entities, and is
+-- positioned past the highest existing id so new blocks never collide with old rows.
+
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS flash_sales_seq INCREMENT BY 50;
+
+SELECT setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM products));
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users));
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM orders));
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_items));
+SELECT setval('flash_sales_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM flash_sales));
+
+-- The old identity defaults are no longer used; Hibernate always supplies the id.
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE flash_sales ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,14 @@
+-- One-off migration for PostgreSQL databases holding products created before the name sort key.
+-- Run once after the first start of a release with case-insensitive name ordering. Safe to re-run.
+-- New and updated products get their key from the application; this fills in existing rows.
+
+UPDATE products
+SET name_key = lower(name)
+WHERE name_key IS NULL;
+
+-- The catalog compares keys by code point, so the column must not use a linguistic collation,
+-- or admin pages read from the database would order (and resume cursors) differently.
+ALTER TABLE products ALTER COLUMN name_key TYPE varchar(255) COLLATE "C";
+
+DROP INDEX IF EXISTS idx_products_name_id;
+CREATE INDEX IF NOT EXISTS idx_products_name_key_id ON products (name_key, id);
@@ -0,0 +1,19 @@
+-- One-off migration for PostgreSQL databases holding users created before the search key columns.
+-- Run once after the first start of a release with indexed admin user search. Safe to re-run.
+-- New and updated users get their keys from the application; this fills in existing rows.
+
+UPDATE users
+SET name_key = lower(regexp_replace(btrim(name), '\s+', ' ', 'g')),
+    email_key = lower(btrim(email))
+WHERE name_key IS NULL OR email_key IS NULL;
+
+UPDATE users
+SET surname_key = regexp_replace(name_key, '^.* ', '')
+WHERE surname_key IS NULL;
+
+-- Under a non-C collation the default btree indexes cannot serve LIKE 'prefix%';
+-- pattern_ops indexes can, so prefix search stays an index range scan.
+CREATE INDEX IF NOT EXISTS idx_users_name_key_pattern ON users (name_key varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_surname_key_pattern ON users (surname_key varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_key_pattern ON users (email_key varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_contact_number_pattern ON users (contact_number varchar_pattern_ops);
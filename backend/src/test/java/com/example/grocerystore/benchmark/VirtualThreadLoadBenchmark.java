@@ -0,0 +1,231 @@
+package com.example.grocerystore.benchmark;
+
+import com.example.grocerystore.GrocerystoreApplication;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load benchmark of the whole application in platform-thread and virtual-thread mode.
+ * Boots the app on a random port with an in-memory H2 database whose commits take
+ * {@code dbLatencyMs} (a slow Postgres), then drives it over HTTP with 300 concurrent
+ * clients, more than Tomcat's 200 platform workers:
+ * <ul>
+ *   <li>{@code browse}: 90% product listing, 10% checkout</li>
+ *   <li>{@code checkout}: 50% product listing, 50% checkout</li>
+ * </ul>
+ * Throughput mode gives requests per second; sample-time mode gives p99 latency per request type.
+ *
+ * Needs Java 21. Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.grocerystore.benchmark.VirtualThreadLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"0", "20"})
+    public int dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+    private String orderJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        System.setProperty("benchmark.db-latency-ms", String.valueOf(dbLatencyMs));
+        context = new SpringApplicationBuilder(GrocerystoreApplication.class, SlowDatabase.class)
+                .profiles("test")
+                .properties(Map.of(
+                        "server.port", "0",
+                        "spring.threads.virtual.enabled", String.valueOf("virtual".equals(threads)),
+                        "spring.datasource.url", "jdbc:h2:mem:load-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size", "20",
+                        "spring.jpa.show-sql", "false",
+                        "rate-limit.enabled", "false",
+                        "logging.level.root", "WARN"))
+                .run();
+
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        Product product = productRepository.findAll().get(0);
+        product.setQuantity(Integer.MAX_VALUE);
+        productRepository.save(product);
+        orderJson = "{\"items\":[{\"productId\":" + product.getId() + ",\"quantity\":1}]}";
+
+        post("/api/auth/register", "{\"name\":\"Load Test\",\"email\":\"load@example.com\",\"password\":\"password123\","
+                + "\"address\":\"1 Bench Street\",\"contactNumber\":\"1234567890\"}", null);
+        String login = post("/api/auth/login", "{\"email\":\"load@example.com\",\"password\":\"password123\"}", null);
+        token = new ObjectMapper().readTree(login).get("token").asText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("browse")
+    @GroupThreads(270)
+    public String browseMixListProducts() throws Exception {
+        return listProducts();
+    }
+
+    @Benchmark
+    @Group("browse")
+    @GroupThreads(30)
+    public String browseMixCheckout() throws Exception {
+        return checkout();
+    }
+
+    @Benchmark
+    @Group("checkout")
+    @GroupThreads(150)
+    public String checkoutMixListProducts() throws Exception {
+        return listProducts();
+    }
+
+    @Benchmark
+    @Group("checkout")
+    @GroupThreads(150)
+    public String checkoutMixCheckout() throws Exception {
+        return checkout();
+    }
+
+    private String listProducts() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/products")).GET().build();
+        return send(request);
+    }
+
+    private String checkout() throws IOException, InterruptedException {
+        return post("/api/orders", orderJson, token);
+    }
+
+    private String post(String path, String json, String bearer) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return send(request.build());
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    /**
+     * Makes every commit on the application's pool take {@code benchmark.db-latency-ms}.
+     * Applied to the pool's physical connections before initialization, so the
+     * virtual-thread connection guard still wraps the HikariDataSource itself.
+     */
+    @Configuration
+    static class SlowDatabase {
+
+        @Bean
+        static BeanPostProcessor slowDatabasePostProcessor() {
+            long latencyMs = Long.getLong("benchmark.db-latency-ms", 0);
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (latencyMs > 0 && bean instanceof HikariDataSource dataSource) {
+                        DriverManagerDataSource physical = new DriverManagerDataSource(
+                                dataSource.getJdbcUrl(), dataSource.getUsername(), dataSource.getPassword());
+                        dataSource.setDataSource(new SlowCommitDataSource(physical, latencyMs));
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    private static final class SlowCommitDataSource extends DelegatingDataSource {
+        private final long latencyMs;
+
+        SlowCommitDataSource(DataSource target, long latencyMs) {
+            super(target);
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection target = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("equals".equals(method.getName())) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(method.getName())) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if ("commit".equals(method.getName())) {
+                            Thread.sleep(latencyMs);
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VirtualThreadLoadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
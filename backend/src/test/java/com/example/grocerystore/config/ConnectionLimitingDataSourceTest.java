@@ -0,0 +1,86 @@
+package com.example.grocerystore.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConnectionLimitingDataSource.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 2, 50);
+    }
+
+    @Test
+    void getConnection_HoldsPermitUntilClosed() throws Exception {
+        // Given
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+
+        // When
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+
+        // Then
+        assertEquals(1, dataSource.availablePermits());
+        verify(physical).setAutoCommit(false);
+        connection.close();
+        verify(physical).close();
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void close_Twice_ReleasesPermitOnce() throws Exception {
+        // Given
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        Connection connection = dataSource.getConnection();
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void getConnection_AllPermitsTaken_TimesOut() throws Exception {
+        // Given
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void getConnection_TargetFails_ReleasesPermit() throws Exception {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("database down"));
+
+        // When & Then
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.availablePermits());
+    }
+}
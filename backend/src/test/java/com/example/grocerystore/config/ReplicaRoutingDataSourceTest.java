@@ -0,0 +1,156 @@
+package com.example.grocerystore.config;
+
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.repository.ProductRepository;
+import com.example.grocerystore.service.UserService;
+import com.example.grocerystore.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for read-replica routing, with two in-memory H2 databases as primary and replica.
+ * Replication is simulated by copying the primary into the replica before each test,
+ * so rows written afterwards exist only on the primary.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "datasource.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+    "datasource.replica.username=sa",
+    "datasource.replica.password=",
+    "datasource.replica.sticky-window-ms=300",
+    "catalog.refresh-interval-ms=600000",
+    "flash-sale.refresh-interval-ms=600000"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        replicate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUseReplica() {
+        // Given
+        long replicated = productRepository.count();
+        insertOnPrimaryOnly();
+
+        // When
+        Long replicaCount = readOnly.execute(status -> productRepository.count());
+        Long primaryCount = readWrite.execute(status -> productRepository.count());
+
+        // Then
+        assertEquals(replicated, replicaCount);
+        assertEquals(replicated + 1, primaryCount);
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldStayOnPrimaryAfterOwnWrite() throws Exception {
+        // Given
+        long replicated = productRepository.count();
+        signIn("writer@example.com");
+        readWrite.executeWithoutResult(status -> productRepository.save(new Product(null, "Fresh Figs", 4.0, 10)));
+
+        // When
+        Long writerReads = readOnly.execute(status -> productRepository.count());
+        signIn("reader@example.com");
+        Long otherReads = readOnly.execute(status -> productRepository.count());
+
+        // Then
+        assertEquals(replicated + 1, writerReads);
+        assertEquals(replicated, otherReads);
+
+        // After the sticky window the writer is back on the replica
+        Thread.sleep(400);
+        signIn("writer@example.com");
+        Long laterReads = readOnly.execute(status -> productRepository.count());
+        assertEquals(replicated, laterReads);
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReadFromPrimary() {
+        // Given
+        User user = new User();
+        user.setName("Fresh Customer");
+        user.setEmail("fresh@example.com");
+        user.setPassword("password123");
+        user.setAddress("1 New Street");
+        user.setContactNumber("5550003333");
+        userService.registerUser(user);
+
+        // When & Then: not replicated yet, but sign-in still finds the user
+        assertEquals("fresh@example.com", userService.loadUserByUsername("fresh@example.com").getUsername());
+    }
+
+    private void insertOnPrimaryOnly() {
+        new JdbcTemplate(primaryDataSource).update(
+            "INSERT INTO products (id, name, price, quantity) VALUES (?, ?, ?, ?)", 999999L, "Primary Only", 1.0, 1);
+    }
+
+    private static void signIn(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            email, null, Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    /**
+     * Copy schema and data from the primary, replacing whatever the replica held.
+     */
+    private void replicate() throws Exception {
+        List<String> script = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class);
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -5,7 +5,7 @@ import com.example.grocerystore.dto.RegisterRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureTestMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -19,7 +19,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration tests for AuthController.
  */
 @SpringBootTest
-@AutoConfigureTestMvc
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
 class AuthControllerIntegrationTest {
@@ -49,7 +49,7 @@ class AuthControllerIntegrationTest {
     }
 
     @Test
-    void register_WithDuplicateEmail_ShouldReturnBadRequest() throws Exception {
+    void register_WithDuplicateEmail_ShouldReturnConflict() throws Exception {
         // Given - First registration
         RegisterRequest request1 = new RegisterRequest();
         request1.setName("Test User 1");
@@ -75,8 +75,8 @@ class AuthControllerIntegrationTest {
         mockMvc.perform(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request2)))
-                .andExpect(status().isBadRequest())
-                .andExpect(content().string(org.hamcrest.Matchers.containsString("Registration failed")));
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Registration failed: Email already exists"));
     }
 
     @Test
@@ -138,7 +138,7 @@ class AuthControllerIntegrationTest {
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").exists())
-                .andExpected(jsonPath("$.email").value("admin@grocery.com"))
+                .andExpect(jsonPath("$.email").value("admin@grocery.com"))
                 .andExpect(jsonPath("$.name").value("Administrator"))
                 .andExpect(jsonPath("$.role").value("ROLE_ADMIN"));
     }
@@ -0,0 +1,154 @@
+package com.example.grocerystore.controller;
+
+import com.example.grocerystore.dto.LoginRequest;
+import com.example.grocerystore.dto.RegisterRequest;
+import com.example.grocerystore.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for OrderController with open-session-in-view disabled.
+ * Not transactional on purpose: any lazy association touched after the service
+ * transaction ends fails the request instead of being silently loaded.
+ */
+@SpringBootTest(properties = "spring.jpa.open-in-view=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private String email;
+    private String token;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        email = "orders-" + UUID.randomUUID() + "@example.com";
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setName("Order Test User");
+        registerRequest.setEmail(email);
+        registerRequest.setPassword("password123");
+        registerRequest.setAddress("123 Order Street");
+        registerRequest.setContactNumber("1234567890");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isOk());
+
+        token = login(email, "password123");
+        productId = productRepository.findByNameContainingIgnoreCase("Apples").get(0).getId();
+    }
+
+    @Test
+    void placeOrder_ShouldReturnOrderWithoutUser() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/orders")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"productId\":" + productId + ",\"quantity\":2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.user").doesNotExist())
+                .andExpect(jsonPath("$.orderItems[0].productName").value("Apples"))
+                .andExpect(jsonPath("$.orderItems[0].quantity").value(2));
+    }
+
+    @Test
+    void getOrderHistoryAndOrderById_ShouldSerializeOutsideTransaction() throws Exception {
+        // Given
+        String body = mockMvc.perform(post("/api/orders")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"productId\":" + productId + ",\"quantity\":1}]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long orderId = objectMapper.readTree(body).get("id").asLong();
+
+        // When & Then
+        mockMvc.perform(get("/api/orders/my-history")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(orderId))
+                .andExpect(jsonPath("$.items[0].orderItems[0].productName").value("Apples"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        mockMvc.perform(get("/api/orders/" + orderId)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderItems[0].productName").value("Apples"));
+    }
+
+    @Test
+    void getOrderById_OfAnotherUser_ShouldReturnForbidden() throws Exception {
+        // Given
+        String body = mockMvc.perform(post("/api/orders")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\":[{\"productId\":" + productId + ",\"quantity\":1}]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long orderId = objectMapper.readTree(body).get("id").asLong();
+        String otherEmail = "orders-" + UUID.randomUUID() + "@example.com";
+        RegisterRequest other = new RegisterRequest();
+        other.setName("Other User");
+        other.setEmail(otherEmail);
+        other.setPassword("password123");
+        other.setAddress("456 Other Street");
+        other.setContactNumber("0987654321");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(other)))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/api/orders/" + orderId)
+                .header("Authorization", "Bearer " + login(otherEmail, "password123")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void searchUsers_AsAdmin_ShouldNotExposePasswords() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/admin/users/search")
+                .param("q", "Order Test")
+                .header("Authorization", "Bearer " + login("admin@grocery.com", "admin123")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].email").exists())
+                .andExpect(jsonPath("$.items[0].password").doesNotExist());
+    }
+
+    private String login(String email, String password) throws Exception {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail(email);
+        loginRequest.setPassword(password);
+        String body = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode response = objectMapper.readTree(body);
+        return response.get("token").asText();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.dto.OrderItemResponse;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.model.Order;
+import com.example.grocerystore.model.OrderItem;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Persistence tests for the order history projections.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderHistoryQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setName("History User");
+        user.setEmail("history@example.com");
+        user.setPassword("secret");
+        user.setAddress("1 History Lane");
+        user.setContactNumber("5550000001");
+        user.setRoles(Collections.emptySet());
+        entityManager.persist(user);
+
+        Product apples = entityManager.persist(new Product(null, "Apples", 2.0, 100));
+        Product milk = entityManager.persist(new Product(null, "Milk", 3.0, 100));
+
+        for (int i = 0; i < 50; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setTotalAmount(5.0);
+            List<OrderItem> items = new ArrayList<>();
+            for (Product product : Arrays.asList(apples, milk)) {
+                items.add(new OrderItem(null, order, product, 1, product.getPrice(), null));
+            }
+            order.setOrderItems(items);
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void historyPages_ShouldUseTwoQueriesWhateverThePageSize() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<OrderResponse> orders = orderRepository.findHistory("history@example.com", PageRequest.of(0, 40));
+        List<OrderItemResponse> items = orderRepository.findItemsByOrderIds(
+            orders.stream().map(OrderResponse::getId).collect(Collectors.toList()));
+
+        // Then
+        assertEquals(40, orders.size());
+        assertEquals(80, items.size());
+        assertTrue(items.stream().allMatch(item -> item.getProductName() != null));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findHistoryBefore_ShouldContinueFromKeysetPosition() {
+        // Given
+        List<OrderResponse> first = orderRepository.findHistory("history@example.com", PageRequest.of(0, 30));
+        OrderResponse last = first.get(first.size() - 1);
+
+        // When
+        List<OrderResponse> second = orderRepository.findHistoryBefore(
+            "history@example.com", last.getOrderDate(), last.getId(), PageRequest.of(0, 30));
+
+        // Then
+        assertEquals(20, second.size());
+        List<Long> seen = first.stream().map(OrderResponse::getId).collect(Collectors.toList());
+        assertTrue(second.stream().noneMatch(order -> seen.contains(order.getId())));
+    }
+}
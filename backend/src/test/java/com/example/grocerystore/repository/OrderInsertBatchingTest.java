@@ -0,0 +1,89 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.model.Order;
+import com.example.grocerystore.model.OrderItem;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Persistence tests asserting that order inserts are JDBC-batched.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderInsertBatchingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Batch User");
+        user.setEmail("batch@example.com");
+        user.setPassword("secret");
+        user.setAddress("1 Batch Street");
+        user.setContactNumber("5550000000");
+        user.setRoles(Collections.emptySet());
+        entityManager.persist(user);
+
+        product = new Product(null, "Apple", 1.0, 1000);
+        entityManager.persist(product);
+
+        // Warm up the order and item id pools so the measured flush needs no sequence calls.
+        // The pooled optimizer reads each sequence twice on first use, so take two ids from each.
+        entityManager.persist(order(1));
+        entityManager.persist(order(1));
+        entityManager.flush();
+    }
+
+    @Test
+    void persistOrder_ShouldIssueOneBatchedInsertPerTable() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        entityManager.persist(order(30));
+        entityManager.flush();
+
+        // Then
+        assertEquals(31, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Order order(int lines) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotalAmount((double) lines);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setPrice(1.0);
+            items.add(item);
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+}
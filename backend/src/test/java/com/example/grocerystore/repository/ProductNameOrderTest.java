@@ -0,0 +1,73 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.service.ProductSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Persistence tests checking the database name order matches the in-memory catalog's.
+ */
+@DataJpaTest
+class ProductNameOrderTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("banana", "Apple", "cherry", "Avocado", "BLUEBERRY")) {
+            products.add(entityManager.persist(new Product(null, name, 1.0, 10)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findPage_ShouldOrderMixedCaseNamesLikeTheCatalog() {
+        // Given
+        List<Product> inMemory = new ArrayList<>(products);
+        inMemory.sort(ProductSort.NAME.comparator());
+
+        // When
+        List<Product> fromDatabase = productRepository.findPage(PageRequest.of(0, 10, ProductSort.NAME.toSort()));
+
+        // Then
+        assertEquals(List.of("Apple", "Avocado", "banana", "BLUEBERRY", "cherry"), names(fromDatabase));
+        assertEquals(names(inMemory), names(fromDatabase));
+    }
+
+    @Test
+    void findPageAfterName_ShouldContinueFromACatalogCursor() {
+        // Given a cursor issued by the in-memory catalog after "Avocado"
+        Product avocado = products.get(3);
+        Product probe = ProductSort.NAME.decodeCursor(ProductSort.NAME.cursorAfter(avocado));
+
+        // When
+        List<Product> rest = productRepository.findPageAfterName(probe.getNameKey(), probe.getId(), PageRequest.of(0, 10));
+        List<Product> before = productRepository.findPageAfterNameDesc(probe.getNameKey(), probe.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("banana", "BLUEBERRY", "cherry"), names(rest));
+        assertEquals(List.of("Apple"), names(before));
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.config.ConnectionLimitingDataSource;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.model.Order;
+import com.example.grocerystore.model.OrderItem;
+import com.example.grocerystore.model.OrderShardOverride;
+import com.example.grocerystore.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for ShardedOrderRepository over three in-memory H2 databases.
+ */
+@ExtendWith(MockitoExtension.class)
+class ShardedOrderRepositoryTest {
+
+    @Mock
+    private OrderShardOverrideRepository overrideRepository;
+
+    private final List<String> urls = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ShardedOrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            urls.add("jdbc:h2:mem:shard" + i + "-" + run + ";DB_CLOSE_DELAY=-1");
+        }
+        when(overrideRepository.findAll()).thenReturn(Collections.emptyList());
+        meterRegistry = new SimpleMeterRegistry();
+        repository = instance(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void shardFor_SpreadsUsersOverEveryShard() {
+        // Given
+        int[] counts = new int[repository.shardCount()];
+
+        // When
+        for (long userId = 1; userId <= 300; userId++) {
+            counts[repository.shardFor(userId)]++;
+        }
+
+        // Then
+        for (int count : counts) {
+            assertTrue(count > 60, "uneven spread: " + count);
+        }
+    }
+
+    @Test
+    void insert_IdsAreUniqueAcrossShards() {
+        // Given
+        Set<Long> ids = new HashSet<>();
+
+        // When
+        for (long userId = 1; userId <= 30; userId++) {
+            ids.add(repository.insert(userId, order(5.0, 2, null)).getId());
+        }
+
+        // Then
+        assertEquals(30, ids.size());
+    }
+
+    @Test
+    void findHistory_PagesNewestFirstWithItems() {
+        // Given
+        List<Long> placed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            placed.add(repository.insert(7L, order(10.0 + i, 1, null)).getId());
+        }
+        repository.insert(8L, order(99.0, 1, null));
+
+        // When
+        List<OrderResponse> first = repository.findHistory(7L, null, null, 3);
+        OrderResponse last = first.get(first.size() - 1);
+        List<OrderResponse> second = repository.findHistory(7L, last.getOrderDate(), last.getId(), 3);
+
+        // Then
+        assertEquals(List.of(placed.get(4), placed.get(3), placed.get(2)), first.stream().map(OrderResponse::getId).toList());
+        assertEquals(List.of(placed.get(1), placed.get(0)), second.stream().map(OrderResponse::getId).toList());
+        assertEquals(1, repository.findItems(7L, List.of(placed.get(0))).size());
+    }
+
+    @Test
+    void findById_OnlyFindsTheOwnersOrder() {
+        // Given
+        OrderResponse placed = repository.insert(7L, order(12.5, 2, null));
+
+        // When
+        OrderResponse found = repository.findById(7L, placed.getId()).orElseThrow();
+
+        // Then
+        assertEquals(12.5, found.getTotalAmount());
+        assertEquals(2, found.getOrderItems().size());
+        assertEquals("Product 1", found.getOrderItems().get(0).getProductName());
+        assertTrue(repository.exists(placed.getId()));
+        assertFalse(repository.exists(placed.getId() + 1));
+    }
+
+    @Test
+    void findRecent_MergesNewestOrdersOfEveryShard() {
+        // Given
+        List<Long> placed = new ArrayList<>();
+        for (long userId = 1; userId <= 9; userId++) {
+            placed.add(repository.insert(userId, order(1.0, 1, null)).getId());
+        }
+
+        // When
+        List<OrderResponse> recent = repository.findRecent(4);
+
+        // Then
+        assertEquals(List.of(placed.get(8), placed.get(7), placed.get(6), placed.get(5)),
+                recent.stream().map(OrderResponse::getId).toList());
+        assertEquals(1, recent.get(0).getOrderItems().size());
+    }
+
+    @Test
+    void sumFlashSaleUnits_AddsUpEveryShard() {
+        // Given
+        for (long userId = 1; userId <= 6; userId++) {
+            repository.insert(userId, order(1.0, 1, 42L));
+        }
+        repository.insert(1L, order(1.0, 1, null));
+
+        // When
+        long units = repository.sumFlashSaleUnits(42L);
+
+        // Then
+        assertEquals(6 * 3, units);
+    }
+
+    @Test
+    void moveUser_CopiesOrdersAndPinsUserToTargetShard() {
+        // Given
+        OrderResponse placed = repository.insert(7L, order(20.0, 2, null));
+        int target = (repository.shardFor(7L) + 1) % repository.shardCount();
+        when(overrideRepository.save(any(OrderShardOverride.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        int moved = repository.moveUser(7L, target);
+
+        // Then
+        assertEquals(1, moved);
+        assertEquals(target, repository.shardFor(7L));
+        OrderResponse found = repository.findById(7L, placed.getId()).orElseThrow();
+        assertEquals(2, found.getOrderItems().size());
+        verify(overrideRepository).save(new OrderShardOverride(7L, target, null));
+        assertEquals(0, repository.moveUser(7L, target));
+    }
+
+    @Test
+    void moveUser_StopsWritesOnEveryInstanceBeforeCopying() {
+        // Given a second instance over the same shards and override table
+        Map<Long, OrderShardOverride> table = new HashMap<>();
+        when(overrideRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(table.values()));
+        ShardedOrderRepository other = instance(false);
+        repository.insert(7L, order(20.0, 2, 42L));
+        int target = (repository.shardFor(7L) + 1) % repository.shardCount();
+        List<Long> unitsBeforeDelete = new ArrayList<>();
+        when(overrideRepository.save(any(OrderShardOverride.class))).thenAnswer(invocation -> {
+            OrderShardOverride override = invocation.getArgument(0);
+            table.put(override.getUserId(), override);
+            if (override.getMovingTo() != null) {
+                // The other instance places an order before it has seen the move, then refreshes
+                other.insert(7L, order(5.0, 1, 42L));
+                other.refreshOverrides();
+                assertThrows(IllegalStateException.class, () -> other.insert(7L, order(5.0, 1, null)));
+            } else {
+                unitsBeforeDelete.add(repository.sumFlashSaleUnits(42L));
+            }
+            return override;
+        });
+
+        try {
+            // When
+            int moved = repository.moveUser(7L, target);
+            other.refreshOverrides();
+
+            // Then
+            assertEquals(2, moved);
+            assertEquals(List.of(3L * 3), unitsBeforeDelete);
+            assertEquals(3L * 3, repository.sumFlashSaleUnits(42L));
+            assertEquals(target, other.shardFor(7L));
+            assertEquals(2, other.findHistory(7L, null, null, 10).size());
+            assertNotNull(other.insert(7L, order(1.0, 1, null)));
+        } finally {
+            other.close();
+        }
+    }
+
+    @Test
+    void moveUser_RejectsUnknownShard() {
+        assertThrows(IllegalArgumentException.class, () -> repository.moveUser(7L, 3));
+    }
+
+    @Test
+    void init_RegistersPoolMetricsAndGuardsPoolsInVirtualThreadMode() {
+        // When
+        ShardedOrderRepository virtual = instance(true);
+
+        try {
+            // Then
+            assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", "order-shard-2").gauge());
+            Object shard = ((List<?>) ReflectionTestUtils.getField(virtual, "shards")).get(0);
+            assertInstanceOf(ConnectionLimitingDataSource.class, ReflectionTestUtils.getField(shard, "dataSource"));
+            assertEquals(1, virtual.insert(7L, order(1.0, 1, null)).getOrderItems().size());
+        } finally {
+            virtual.close();
+        }
+    }
+
+    private ShardedOrderRepository instance(boolean virtualThreads) {
+        ShardedOrderRepository instance = new ShardedOrderRepository(overrideRepository, meterRegistry);
+        ReflectionTestUtils.setField(instance, "enabled", true);
+        ReflectionTestUtils.setField(instance, "urls", String.join(",", urls));
+        ReflectionTestUtils.setField(instance, "poolSize", 2);
+        ReflectionTestUtils.setField(instance, "overrideRefreshMs", 0L);
+        ReflectionTestUtils.setField(instance, "virtualThreads", virtualThreads);
+        instance.init();
+        return instance;
+    }
+
+    private static Order order(double total, int lines, Long flashSaleId) {
+        Order order = new Order();
+        order.setTotalAmount(total);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 1; i <= lines; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName("Product " + i);
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity(3);
+            item.setPrice(1.5);
+            item.setFlashSaleId(flashSaleId);
+            items.add(item);
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.grocerystore.repository;
+
+import com.example.grocerystore.dto.UserResponse;
+import com.example.grocerystore.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Persistence tests for the admin user search projections.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserSearchQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        persist("Alice  Smith", "Alice.Smith@Example.com", "5551230001");
+        persist("Bob Smithers", "bob@example.com", "5551230002");
+        persist("Carol Jones", "carol@example.com", "5559990003");
+        persist("Smith_ Wild", "wild@example.com", "5559990004");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void searchByName_ShouldMatchFullOrLastNamePrefixWithoutLoadingEntities() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<UserResponse> users = userRepository.searchByName("smith%", 0L, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("Alice  Smith", "Bob Smithers", "Smith_ Wild"), names(users));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchByName_ShouldTreatEscapedWildcardsLiterally() {
+        // When
+        List<UserResponse> users = userRepository.searchByName("smith\\_%", 0L, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("Smith_ Wild"), names(users));
+    }
+
+    @Test
+    void searchByName_ShouldContinueAfterKeysetPosition() {
+        // Given
+        List<UserResponse> first = userRepository.searchByName("smith%", 0L, PageRequest.of(0, 2));
+
+        // When
+        List<UserResponse> second = userRepository.searchByName(
+            "smith%", first.get(first.size() - 1).getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(List.of("Alice  Smith", "Bob Smithers"), names(first));
+        assertEquals(List.of("Smith_ Wild"), names(second));
+    }
+
+    @Test
+    void searchByEmailAndContactNumber_ShouldMatchPrefixes() {
+        // When
+        List<UserResponse> byEmail = userRepository.searchByEmail("alice.smith@%", 0L, PageRequest.of(0, 10));
+        List<UserResponse> byPhone = userRepository.searchByContactNumber("555999%", 0L, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("Alice  Smith"), names(byEmail));
+        assertEquals(List.of("Carol Jones", "Smith_ Wild"), names(byPhone));
+    }
+
+    private void persist(String name, String email, String contactNumber) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setAddress("1 Search Road");
+        user.setContactNumber(contactNumber);
+        user.setRoles(Collections.emptySet());
+        entityManager.persist(user);
+    }
+
+    private static List<String> names(List<UserResponse> users) {
+        return users.stream().map(UserResponse::getName).collect(Collectors.toList());
+    }
+}
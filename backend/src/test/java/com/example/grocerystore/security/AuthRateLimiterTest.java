@@ -0,0 +1,80 @@
+package com.example.grocerystore.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuthRateLimiter.
+ */
+class AuthRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter rateLimitFilter;
+    private AuthRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(meterRegistry);
+        rateLimitFilter.init();
+        rateLimiter = new AuthRateLimiter(rateLimitFilter, meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "ipCapacity", 3);
+        ReflectionTestUtils.setField(rateLimiter, "accountCapacity", 2);
+        rateLimiter.init();
+    }
+
+    @Test
+    void tryAcquire_ShouldLimitEachAccount() {
+        // When & Then
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", "user@example.com"));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.2", "USER@example.com "));
+        assertFalse(rateLimiter.tryAcquire("10.0.0.3", "user@example.com"));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.3", "other@example.com"));
+        assertEquals(1.0, meterRegistry.get("auth.rate-limit.rejected").tag("scope", "account").counter().count());
+    }
+
+    @Test
+    void tryAcquire_ShouldLimitEachIp() {
+        // When & Then
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", "a@example.com"));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", "b@example.com"));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", "c@example.com"));
+        assertFalse(rateLimiter.tryAcquire("10.0.0.1", "d@example.com"));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.2", "d@example.com"));
+        assertEquals(1.0, meterRegistry.get("auth.rate-limit.rejected").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    void tryAcquire_ShouldAdmitAgainOnceAccountRefills() {
+        // Given
+        ReflectionTestUtils.setField(rateLimiter, "accountCapacity", 1);
+        ReflectionTestUtils.setField(rateLimiter, "accountPerMinute", 60.0);
+        rateLimiter.init();
+        long start = System.nanoTime();
+
+        // When & Then
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", "user@example.com", start));
+        assertFalse(rateLimiter.tryAcquire("10.0.0.1", "user@example.com", start + TimeUnit.MILLISECONDS.toNanos(500)));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", "user@example.com", start + TimeUnit.MILLISECONDS.toNanos(1500)));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepBucketsInFilterStoreApartFromApiLimits() {
+        // Given
+        rateLimiter.tryAcquire("10.0.0.1", "user@example.com");
+
+        // When
+        long apiWait = rateLimitFilter.acquire("ip:10.0.0.1", rateLimitFilter.ipLimit(), System.nanoTime());
+        rateLimitFilter.sweep();
+
+        // Then
+        assertEquals(0, apiWait);
+        assertEquals(3, rateLimitFilter.bucketCount());
+    }
+}
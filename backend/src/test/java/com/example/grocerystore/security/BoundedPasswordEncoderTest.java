@@ -0,0 +1,127 @@
+package com.example.grocerystore.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedPasswordEncoder.
+ */
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+    private ExecutorService callers;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateAndRecordLatency() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new ReversingEncoder(null, null), 1, 1, 1000, meterRegistry);
+
+        // When
+        String encoded = encoder.encode("secret");
+
+        // Then
+        assertEquals("terces", encoded);
+        assertTrue(encoder.matches("secret", encoded));
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.queue.wait").timer().count());
+    }
+
+    @Test
+    void encode_WhenSaturated_ShouldRejectImmediately() throws Exception {
+        // Given: one thread busy and one task queued
+        encoder = new BoundedPasswordEncoder(new ReversingEncoder(started, release), 1, 1, 5000, meterRegistry);
+        callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> encoder.encode("second"));
+        waitForQueueDepth(1);
+
+        // When
+        long before = System.nanoTime();
+        PasswordHashingBusyException exception = assertThrows(PasswordHashingBusyException.class,
+                () -> encoder.encode("third"));
+
+        // Then
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - before) < 1000);
+        assertEquals("Too many sign-in requests, please retry shortly", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+    }
+
+    @Test
+    void matches_WhenHashingTakesTooLong_ShouldTimeOut() throws Exception {
+        // Given
+        encoder = new BoundedPasswordEncoder(new ReversingEncoder(started, release), 1, 1, 50, meterRegistry);
+
+        // When & Then
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("secret", "terces"));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("auth.password.queue.depth").gauge().value() < depth
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Cheap stand-in for BCrypt that can be made to block.
+     */
+    private static final class ReversingEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        ReversingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return new StringBuilder(rawPassword).reverse().toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return new StringBuilder(rawPassword).reverse().toString().equals(encodedPassword);
+        }
+
+        private void block() {
+            if (release == null) {
+                return;
+            }
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
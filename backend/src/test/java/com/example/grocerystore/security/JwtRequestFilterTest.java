@@ -0,0 +1,102 @@
+package com.example.grocerystore.security;
+
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.model.User;
+import com.example.grocerystore.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JwtRequestFilter.
+ */
+class JwtRequestFilterTest {
+
+    private UserRepository userRepository;
+    private JwtUtil jwtUtil;
+    private JwtRequestFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60000L);
+        jwtUtil.init();
+        filter = new JwtRequestFilter(jwtUtil, new TokenVersionCache(userRepository));
+
+        user = new User();
+        user.setId(7L);
+        user.setEmail("user@example.com");
+        user.setRoles(Collections.singleton(new Role(1L, "ROLE_USER")));
+        user.setTokenVersion(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(user);
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.of(3));
+
+        // When
+        Authentication first = filter(token);
+        Authentication second = filter(token);
+
+        // Then
+        assertEquals("user@example.com", first.getName());
+        assertEquals(Collections.singletonList("ROLE_USER"), first.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+        assertNotNull(second);
+        verify(userRepository, times(1)).findTokenVersionById(7L);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void doFilter_WithRevokedTokenVersion_ShouldNotAuthenticate() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(user);
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.of(4));
+
+        // When & Then
+        assertNull(filter(token));
+    }
+
+    @Test
+    void doFilter_WithTamperedToken_ShouldNotAuthenticate() throws Exception {
+        // Given
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // When & Then
+        assertNull(filter(tampered));
+        verifyNoInteractions(userRepository);
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.grocerystore.security;
+
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtUtil.
+ */
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil(60000L);
+        user = new User();
+        user.setId(7L);
+        user.setEmail("user@example.com");
+        user.setRoles(Collections.singleton(new Role(1L, "ROLE_USER")));
+        user.setTokenVersion(0);
+    }
+
+    @Test
+    void verify_ShouldReturnCachedClaimsForRepeatToken() {
+        // Given
+        String token = jwtUtil.generateToken(user);
+
+        // When
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(new String(token.toCharArray()));
+
+        // Then
+        assertEquals("user@example.com", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_WithExpiredToken_ShouldThrowException() {
+        // Given
+        String token = jwtUtil(-1000L).generateToken(user);
+
+        // When & Then
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void verify_WithTokenSignedByOtherKey_ShouldThrowException() {
+        // Given
+        JwtUtil other = new JwtUtil();
+        ReflectionTestUtils.setField(other, "secret", "another-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(other, "expiration", 60000L);
+        other.init();
+        String token = other.generateToken(user);
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void verify_ShouldKeepCacheBounded() {
+        // Given
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 4);
+
+        // When
+        for (long id = 1; id <= 20; id++) {
+            user.setId(id);
+            jwtUtil.verify(jwtUtil.generateToken(user));
+        }
+
+        // Then
+        Map<?, ?> verified = (Map<?, ?>) ReflectionTestUtils.getField(jwtUtil, "verified");
+        assertTrue(verified.size() <= 4);
+    }
+
+    private static JwtUtil jwtUtil(long expiration) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
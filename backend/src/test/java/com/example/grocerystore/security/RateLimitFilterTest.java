@@ -0,0 +1,143 @@
+package com.example.grocerystore.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitFilter.
+ */
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(meterRegistry);
+        ReflectionTestUtils.setField(filter, "ipCapacity", 2);
+        ReflectionTestUtils.setField(filter, "ipPerSecond", 1.0);
+        ReflectionTestUtils.setField(filter, "userCapacity", 3);
+        ReflectionTestUtils.setField(filter, "userPerSecond", 1.0);
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WhenIpExceedsCapacity_ShouldReturn429WithRetryAfter() throws Exception {
+        // Given
+        assertEquals(200, send("10.0.0.1").getStatus());
+        assertEquals(200, send("10.0.0.1").getStatus());
+
+        // When
+        MockHttpServletResponse response = send("10.0.0.1");
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(200, send("10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.get("http.rate-limit.rejected").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    void doFilter_WhenAuthenticated_ShouldLimitPerUserAcrossIps() throws Exception {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user@example.com", null, Collections.singleton(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        // When & Then
+        assertEquals(200, send("10.0.0.1").getStatus());
+        assertEquals(200, send("10.0.0.2").getStatus());
+        assertEquals(200, send("10.0.0.3").getStatus());
+        assertEquals(429, send("10.0.0.4").getStatus());
+        assertEquals(1.0, meterRegistry.get("http.rate-limit.rejected").tag("scope", "user").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldIgnoreNonApiPaths() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/h2-console/");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            // When
+            filter.doFilter(request, response, new MockFilterChain());
+
+            // Then
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0, filter.bucketCount());
+    }
+
+    @Test
+    void acquire_ShouldRefillAtConfiguredRate() {
+        // Given
+        long start = 0;
+        long second = TimeUnit.SECONDS.toNanos(1);
+        filter.acquire("ip:a", filter.ipLimit(), start);
+        filter.acquire("ip:a", filter.ipLimit(), start);
+
+        // When
+        long wait = filter.acquire("ip:a", filter.ipLimit(), start);
+
+        // Then
+        assertEquals(second, wait);
+        assertTrue(filter.acquire("ip:a", filter.ipLimit(), start + second / 2) > 0);
+        assertEquals(0, filter.acquire("ip:a", filter.ipLimit(), start + second));
+    }
+
+    @Test
+    void sweep_ShouldEvictOnlyRefilledBuckets() {
+        // Given
+        long now = System.nanoTime();
+        filter.acquire("ip:idle", filter.ipLimit(), now - TimeUnit.MINUTES.toNanos(1));
+        filter.acquire("ip:busy", filter.ipLimit(), now + TimeUnit.MINUTES.toNanos(1));
+
+        // When
+        filter.sweep();
+
+        // Then
+        assertEquals(1, filter.bucketCount());
+    }
+
+    @Test
+    void acquire_WhenTableIsFull_ShouldStayBounded() {
+        // Given
+        ReflectionTestUtils.setField(filter, "maxEntries", 10);
+        long future = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            filter.acquire("ip:" + i, filter.ipLimit(), future);
+        }
+
+        // Then
+        assertTrue(filter.bucketCount() <= 10);
+    }
+
+    private MockHttpServletResponse send(String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
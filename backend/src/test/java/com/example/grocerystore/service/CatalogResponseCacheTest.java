@@ -0,0 +1,133 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CatalogResponseCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogResponseCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductCatalog productCatalog;
+
+    private CatalogResponseCache cache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        productCatalog = new ProductCatalog(productRepository);
+        cache = new CatalogResponseCache(productCatalog, objectMapper);
+        when(productRepository.findAll()).thenReturn(Arrays.asList(new Product(1L, "Apples", 2.99, 100)));
+    }
+
+    @Test
+    void allProducts_ShouldEncodeOncePerCatalogVersion() throws Exception {
+        // When
+        EncodedResponse first = cache.allProducts();
+        EncodedResponse second = cache.allProducts();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(objectMapper.writeValueAsString(productCatalog.snapshot().getProducts()),
+            new String(first.getJson(), "UTF-8"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.getGzip()))) {
+            assertArrayEquals(first.getJson(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void allProducts_ShouldCompressOnlyWhenGzipIsRequested() {
+        // Given
+        EncodedResponse response = cache.allProducts();
+        assertNull(ReflectionTestUtils.getField(response, "gzip"));
+
+        // When
+        byte[] gzip = response.getGzip();
+
+        // Then
+        assertSame(gzip, response.getGzip());
+    }
+
+    @Test
+    void allProducts_AfterCatalogChange_ShouldReencodeWithNewETag() {
+        // Given
+        EncodedResponse before = cache.allProducts();
+
+        // When
+        productCatalog.put(new Product(2L, "Bananas", 1.99, 150));
+        EncodedResponse after = cache.allProducts();
+
+        // Then
+        assertNotSame(before, after);
+        assertNotEquals(before.getETag(), after.getETag());
+        assertTrue(new String(after.getJson()).contains("Bananas"));
+    }
+
+    @Test
+    void page_ShouldCacheEachDistinctPage() {
+        // When
+        EncodedResponse first = cache.page(ProductSort.NAME, null, 10);
+        EncodedResponse again = cache.page(ProductSort.NAME, null, 10);
+        EncodedResponse other = cache.page(ProductSort.PRICE, null, 10);
+
+        // Then
+        assertSame(first, again);
+        assertNotSame(first, other);
+        assertEquals(first.getETag(), other.getETag());
+    }
+
+    @Test
+    void page_ShouldShareEntryForRequestsResolvingToSamePage() {
+        // When
+        EncodedResponse small = cache.page(ProductSort.ID, null, 10);
+        EncodedResponse clamped = cache.page(ProductSort.ID, null, 5000);
+
+        // Then
+        assertSame(small, clamped);
+    }
+
+    @Test
+    void page_ShouldKeepRecentlyUsedPagesWhenFlooded() {
+        // Given a catalog with more pages than the cache holds
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= CatalogResponseCache.MAX_CACHED_PAGES + 100; id++) {
+            products.add(new Product(id, "Product " + id, 1.0, 1));
+        }
+        when(productRepository.findAll()).thenReturn(products);
+        EncodedResponse popular = cache.page(ProductSort.ID, null, 1);
+        EncodedResponse unpopular = cache.page(ProductSort.ID, ProductSort.ID.cursorAfter(products.get(0)), 1);
+
+        // When every other page is requested once, while the popular one keeps being read
+        for (int i = 1; i < products.size(); i++) {
+            cache.page(ProductSort.ID, ProductSort.ID.cursorAfter(products.get(i)), 1);
+            if (i % 100 == 0) {
+                cache.page(ProductSort.ID, null, 1);
+            }
+        }
+
+        // Then
+        assertSame(popular, cache.page(ProductSort.ID, null, 1));
+        assertNotSame(unpopular, cache.page(ProductSort.ID, ProductSort.ID.cursorAfter(products.get(0)), 1));
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.FlashSaleStatus;
+import com.example.grocerystore.model.FlashSale;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.repository.FlashSaleRepository;
+import com.example.grocerystore.repository.ProductRepository;
+import com.example.grocerystore.repository.ShardedOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FlashSaleService.
+ */
+class FlashSaleServiceTest {
+
+    private ProductRepository productRepository;
+    private FlashSaleRepository flashSaleRepository;
+    private ShardedOrderRepository shardedOrderRepository;
+    private FlashSaleService flashSaleService;
+    private Product product;
+    private final List<FlashSale> runs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        flashSaleRepository = mock(FlashSaleRepository.class);
+        shardedOrderRepository = mock(ShardedOrderRepository.class);
+        flashSaleService = new FlashSaleService(productRepository, flashSaleRepository, shardedOrderRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(flashSaleService, "stripes", 2);
+
+        product = new Product(1L, "Apples", 1.99, 10);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.decrementStock(anyLong(), anyInt())).thenAnswer(invocation -> {
+            int units = invocation.getArgument(1);
+            if (product.getQuantity() < units) {
+                return 0;
+            }
+            product.setQuantity(product.getQuantity() - units);
+            return 1;
+        });
+        when(productRepository.restoreStock(anyLong(), anyInt())).thenAnswer(invocation -> {
+            product.setQuantity(product.getQuantity() + (int) invocation.getArgument(1));
+            return 1;
+        });
+
+        when(flashSaleRepository.save(any(FlashSale.class))).thenAnswer(invocation -> {
+            FlashSale run = invocation.getArgument(0);
+            run.setId(5L + runs.size());
+            runs.add(run);
+            return run;
+        });
+        when(flashSaleRepository.findByActiveTrue()).thenAnswer(invocation -> runs.stream()
+                .filter(FlashSale::getActive).collect(Collectors.toList()));
+        when(flashSaleRepository.findByProductIdAndActiveTrue(anyLong())).thenAnswer(invocation -> runs.stream()
+                .filter(run -> run.getActive() && run.getProductId().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(flashSaleRepository.findBySettledFalseAndEndedAtBefore(any())).thenAnswer(invocation -> runs.stream()
+                .filter(run -> !run.getSettled() && run.getEndedAt() != null
+                        && run.getEndedAt().isBefore(invocation.getArgument(0)))
+                .collect(Collectors.toList()));
+        when(flashSaleRepository.findByIdForUpdate(anyLong())).thenAnswer(invocation -> run(invocation.getArgument(0)));
+        when(flashSaleRepository.addClaimedUnits(anyLong(), anyLong())).thenAnswer(invocation -> {
+            run(invocation.getArgument(0)).ifPresent(run ->
+                    run.setClaimedUnits(run.getClaimedUnits() + (long) invocation.getArgument(1)));
+            return 1;
+        });
+        when(flashSaleRepository.addReturnedUnits(anyLong(), anyLong())).thenAnswer(invocation -> {
+            run(invocation.getArgument(0)).ifPresent(run ->
+                    run.setReturnedUnits(run.getReturnedUnits() + (long) invocation.getArgument(1)));
+            return 1;
+        });
+    }
+
+    @Test
+    void start_ShouldRecordRunAndClaimStock() {
+        // When
+        FlashSaleStatus status = flashSaleService.start(1L);
+
+        // Then
+        assertTrue(status.isActive());
+        assertEquals(10, status.getAvailable());
+        assertEquals(10, status.getHeld());
+        assertEquals(0, product.getQuantity());
+        assertEquals(10L, runs.get(0).getClaimedUnits());
+        assertTrue(flashSaleService.isActive(1L));
+    }
+
+    @Test
+    void start_ShouldRejectSecondRunForSameProduct() {
+        // Given
+        flashSaleService.start(1L);
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> flashSaleService.start(1L));
+        verify(flashSaleRepository, times(1)).save(any(FlashSale.class));
+    }
+
+    @Test
+    void start_ShouldFailWhenProductDoesNotExist() {
+        // Given
+        when(productRepository.findByIdForUpdate(2L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> flashSaleService.start(2L));
+        assertFalse(flashSaleService.isActive(2L));
+        verify(flashSaleRepository, never()).save(any(FlashSale.class));
+    }
+
+    @Test
+    void reserve_ShouldTakeFromCounterAndTagRun() {
+        // Given
+        flashSaleService.start(1L);
+
+        // When
+        Map<Long, Long> runIds = flashSaleService.reserve(Map.of(1L, 3)).getRunIds();
+
+        // Then
+        assertEquals(5L, runIds.get(1L));
+        assertEquals(7, flashSaleService.status(1L).getHeld());
+    }
+
+    @Test
+    void reserve_ShouldLeaveProductToDatabaseWhenCounterIsShort() {
+        // Given
+        flashSaleService.start(1L);
+
+        // When
+        Map<Long, Long> runIds = flashSaleService.reserve(Map.of(1L, 11)).getRunIds();
+
+        // Then
+        assertTrue(runIds.isEmpty());
+        assertEquals(10, flashSaleService.status(1L).getHeld());
+    }
+
+    @Test
+    void stop_ShouldHandBackUnsoldUnits() {
+        // Given
+        flashSaleService.start(1L);
+        flashSaleService.reserve(Map.of(1L, 2));
+
+        // When
+        FlashSaleStatus status = flashSaleService.stop(1L);
+
+        // Then
+        assertFalse(status.isActive());
+        assertFalse(flashSaleService.isActive(1L));
+        assertEquals(8, product.getQuantity());
+        assertEquals(8L, runs.get(0).getReturnedUnits());
+        assertFalse(runs.get(0).getActive());
+        assertNotNull(runs.get(0).getEndedAt());
+    }
+
+    @Test
+    void stop_WhenHandBackFails_ShouldSellFromDatabaseAndRetryOnNextRefresh() {
+        // Given
+        flashSaleService.start(1L);
+        doThrow(new RuntimeException("Connection reset"))
+                .doAnswer(invocation -> {
+                    product.setQuantity(product.getQuantity() + (int) invocation.getArgument(1));
+                    return 1;
+                })
+                .when(productRepository).restoreStock(anyLong(), anyInt());
+
+        // When
+        flashSaleService.stop(1L);
+        Map<Long, Long> whileClosing = flashSaleService.reserve(Map.of(1L, 1)).getRunIds();
+        flashSaleService.refresh();
+
+        // Then
+        assertTrue(whileClosing.isEmpty());
+        assertFalse(flashSaleService.isActive(1L));
+        assertEquals(10, product.getQuantity());
+        assertTrue(flashSaleService.start(1L).isActive());
+    }
+
+    @Test
+    void refresh_ShouldOpenRunStartedOnAnotherInstance() {
+        // Given
+        runs.add(new FlashSale(5L, 1L, true, 0L, 0L, false, LocalDateTime.now(), null));
+
+        // When
+        flashSaleService.refresh();
+
+        // Then
+        assertTrue(flashSaleService.isActive(1L));
+        assertEquals(5L, flashSaleService.reserve(Map.of(1L, 4)).getRunIds().get(1L));
+        assertEquals(10L, runs.get(0).getClaimedUnits());
+    }
+
+    @Test
+    void refresh_ShouldTopUpOnlyBelowHalfABlock() {
+        // Given
+        ReflectionTestUtils.setField(flashSaleService, "claimSize", 4);
+        flashSaleService.start(1L);
+        flashSaleService.reserve(Map.of(1L, 1));
+
+        // When
+        flashSaleService.refresh();
+        long afterSmallSale = flashSaleService.status(1L).getHeld();
+        flashSaleService.reserve(Map.of(1L, 2));
+        flashSaleService.refresh();
+
+        // Then
+        assertEquals(3, afterSmallSale);
+        assertEquals(4, flashSaleService.status(1L).getHeld());
+        assertEquals(7L, runs.get(0).getClaimedUnits());
+    }
+
+    @Test
+    void refresh_ShouldSettleUnitsHeldByInstancesThatWentAway() {
+        // Given
+        FlashSale ended = new FlashSale(5L, 1L, false, 10L, 4L, false,
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().minusMinutes(5));
+        runs.add(ended);
+        when(flashSaleRepository.sumSoldUnits(5L)).thenReturn(5L);
+
+        // When
+        flashSaleService.refresh();
+        flashSaleService.refresh();
+
+        // Then
+        assertEquals(11, product.getQuantity());
+        assertEquals(5L, ended.getReturnedUnits());
+        assertTrue(ended.getSettled());
+    }
+
+    private Optional<FlashSale> run(Long id) {
+        return runs.stream().filter(run -> run.getId().equals(id)).findFirst();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.FlashSale;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.repository.FlashSaleRepository;
+import com.example.grocerystore.repository.ProductRepository;
+import com.example.grocerystore.repository.ShardedOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Persistence tests running two FlashSaleService instances, as two application
+ * instances would, against one database.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlashSaleSharedStockTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private FlashSaleRepository flashSaleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private FlashSaleService first;
+    private FlashSaleService second;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        productId = productRepository.save(new Product(null, "Apples", 1.99, 100)).getId();
+        first = instance();
+        second = instance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        flashSaleRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void checkouts_OnBothInstances_ShouldNeverSellMoreThanStock() {
+        // Given
+        first.start(productId);
+        second.refresh();
+
+        // When every checkout alternates instances, falling back to the product row like OrderService
+        int sold = 0;
+        for (int attempt = 0; attempt < 150; attempt++) {
+            FlashSaleService instance = attempt % 2 == 0 ? first : second;
+            if (sellOne(instance)) {
+                sold++;
+            }
+            if (attempt % 10 == 0) {
+                first.refresh();
+                second.refresh();
+            }
+        }
+
+        // Then
+        assertEquals(100, sold);
+        assertEquals(0, quantity());
+        assertEquals(0, first.status(productId).getHeld());
+        assertEquals(0, second.status(productId).getHeld());
+    }
+
+    @Test
+    void stop_OnOtherInstance_ShouldHandBackStockOfBoth() {
+        // Given
+        first.start(productId);
+        second.refresh();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(sellOne(first));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(sellOne(second));
+        }
+
+        // When
+        second.stop(productId);
+        first.refresh();
+
+        // Then
+        FlashSale run = flashSaleRepository.findAll().get(0);
+        assertFalse(first.isActive(productId));
+        assertFalse(second.isActive(productId));
+        assertEquals(85, quantity());
+        assertEquals(15L, run.getClaimedUnits() - run.getReturnedUnits());
+    }
+
+    private FlashSaleService instance() {
+        FlashSaleService instance = new FlashSaleService(productRepository, flashSaleRepository,
+                mock(ShardedOrderRepository.class), transactionTemplate);
+        ReflectionTestUtils.setField(instance, "stripes", 2);
+        ReflectionTestUtils.setField(instance, "claimSize", 30);
+        return instance;
+    }
+
+    private boolean sellOne(FlashSaleService instance) {
+        if (!instance.reserve(Map.of(productId, 1)).getRunIds().isEmpty()) {
+            return true;
+        }
+        return Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> productRepository.decrementStock(productId, 1) == 1));
+    }
+
+    private int quantity() {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+}
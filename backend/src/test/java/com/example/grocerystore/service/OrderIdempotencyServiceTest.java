@@ -0,0 +1,241 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.OrderRequest;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.model.IdempotencyKey;
+import com.example.grocerystore.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderIdempotencyService.
+ */
+class OrderIdempotencyServiceTest {
+
+    private OrderService orderService;
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private OrderIdempotencyService idempotencyService;
+    private OrderRequest request;
+    private OrderResponse order;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+        idempotencyService = new OrderIdempotencyService(orderService, idempotencyKeyRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        request = new OrderRequest();
+        order = new OrderResponse();
+        order.setId(42L);
+        when(idempotencyKeyRepository.findByUserEmailAndIdempotencyKey(anyString(), anyString()))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    void placeOrder_ShouldReturnOriginalOrderOnRetry() {
+        // Given
+        when(orderService.createOrder(request, "user@example.com")).thenReturn(order);
+
+        // When
+        OrderResponse first = idempotencyService.placeOrder(request, "user@example.com", "key-1");
+        OrderResponse retry = idempotencyService.placeOrder(request, "user@example.com", "key-1");
+
+        // Then
+        assertSame(first, retry);
+        verify(orderService, times(1)).createOrder(request, "user@example.com");
+        verify(idempotencyKeyRepository).saveAndFlush(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void placeOrder_ShouldMakeConcurrentDuplicatesWaitForFirstAttempt() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(request, "user@example.com")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return order;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<OrderResponse> first = executor.submit(() -> idempotencyService.placeOrder(request, "user@example.com", "key-1"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<OrderResponse> duplicate = executor.submit(() -> idempotencyService.placeOrder(request, "user@example.com", "key-1"));
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            // Then
+            assertSame(order, first.get(5, TimeUnit.SECONDS));
+            assertSame(order, duplicate.get(5, TimeUnit.SECONDS));
+            verify(orderService, times(1)).createOrder(request, "user@example.com");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void placeOrder_ShouldLoadOrderRecordedInDatabase() {
+        // Given
+        when(idempotencyKeyRepository.findByUserEmailAndIdempotencyKey("user@example.com", "key-1"))
+                .thenReturn(Optional.of(new IdempotencyKey(1L, "user@example.com", "key-1", 42L, null, LocalDateTime.now())));
+        when(orderService.getOrderById(42L, "user@example.com")).thenReturn(order);
+
+        // When
+        OrderResponse result = idempotencyService.placeOrder(request, "user@example.com", "key-1");
+
+        // Then
+        assertSame(order, result);
+        verify(orderService, never()).createOrder(any(), anyString());
+    }
+
+    @Test
+    void placeOrder_ShouldPlaceNewOrderWhenRecordedKeyHasExpired() {
+        // Given
+        when(idempotencyKeyRepository.findByUserEmailAndIdempotencyKey("user@example.com", "key-1"))
+                .thenReturn(Optional.of(new IdempotencyKey(1L, "user@example.com", "key-1", 7L, null,
+                        LocalDateTime.now().minusDays(2))));
+        when(orderService.createOrder(request, "user@example.com")).thenReturn(order);
+
+        // When
+        OrderResponse result = idempotencyService.placeOrder(request, "user@example.com", "key-1");
+
+        // Then
+        assertSame(order, result);
+        verify(orderService, never()).getOrderById(7L, "user@example.com");
+        verify(idempotencyKeyRepository).deleteExpired(eq("user@example.com"), eq("key-1"), any(LocalDateTime.class));
+        verify(idempotencyKeyRepository).saveAndFlush(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void placeOrder_ShouldAllowRetryAfterFailedAttempt() {
+        // Given
+        when(orderService.createOrder(request, "user@example.com"))
+                .thenThrow(new RuntimeException("Insufficient stock for product ids: [1]"))
+                .thenReturn(order);
+
+        // When
+        assertThrows(RuntimeException.class,
+                () -> idempotencyService.placeOrder(request, "user@example.com", "key-1"));
+        OrderResponse result = idempotencyService.placeOrder(request, "user@example.com", "key-1");
+
+        // Then
+        assertSame(order, result);
+        verify(orderService, times(2)).createOrder(request, "user@example.com");
+    }
+
+    @Test
+    void placeOrder_ShouldReturnWinnerWhenKeyWasCommittedElsewhere() {
+        // Given
+        OrderResponse winner = new OrderResponse();
+        winner.setId(7L);
+        when(orderService.createOrder(request, "user@example.com")).thenReturn(order);
+        when(idempotencyKeyRepository.saveAndFlush(any(IdempotencyKey.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_idempotency_keys_user_key"));
+        when(idempotencyKeyRepository.findByUserEmailAndIdempotencyKey("user@example.com", "key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotencyKey(1L, "user@example.com", "key-1", 7L, null, LocalDateTime.now())));
+        when(orderService.getOrderById(7L, "user@example.com")).thenReturn(winner);
+
+        // When
+        OrderResponse result = idempotencyService.placeOrder(request, "user@example.com", "key-1");
+
+        // Then
+        assertSame(winner, result);
+    }
+
+    @Test
+    void placeOrder_ShouldScopeKeysPerUser() {
+        // Given
+        OrderResponse other = new OrderResponse();
+        when(orderService.createOrder(request, "user@example.com")).thenReturn(order);
+        when(orderService.createOrder(request, "other@example.com")).thenReturn(other);
+
+        // When
+        OrderResponse mine = idempotencyService.placeOrder(request, "user@example.com", "key-1");
+        OrderResponse theirs = idempotencyService.placeOrder(request, "other@example.com", "key-1");
+
+        // Then
+        assertSame(order, mine);
+        assertSame(other, theirs);
+    }
+
+    @Test
+    void placeOrder_ShouldRejectKeyReusedForDifferentBasket() {
+        // Given
+        when(orderService.createOrder(any(), eq("user@example.com"))).thenReturn(order);
+        idempotencyService.placeOrder(basket(1L, 2), "user@example.com", "key-1");
+
+        // When & Then
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.placeOrder(basket(1L, 3), "user@example.com", "key-1"));
+        verify(orderService, times(1)).createOrder(any(), eq("user@example.com"));
+    }
+
+    @Test
+    void placeOrder_ShouldRejectKeyRecordedInDatabaseForDifferentBasket() {
+        // Given
+        String recordedHash = OrderIdempotencyService.fingerprint(basket(1L, 2));
+        when(idempotencyKeyRepository.findByUserEmailAndIdempotencyKey("user@example.com", "key-1"))
+                .thenReturn(Optional.of(new IdempotencyKey(1L, "user@example.com", "key-1", 42L, recordedHash,
+                        LocalDateTime.now())));
+        when(orderService.getOrderById(42L, "user@example.com")).thenReturn(order);
+
+        // When & Then
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.placeOrder(basket(2L, 2), "user@example.com", "key-1"));
+        verify(orderService, never()).createOrder(any(), anyString());
+    }
+
+    @Test
+    void fingerprint_ShouldIgnoreLineOrderAndSplitLines() {
+        // Given
+        OrderRequest shuffled = basket(2L, 1);
+        shuffled.getItems().addAll(basket(1L, 1).getItems());
+        shuffled.getItems().addAll(basket(1L, 1).getItems());
+        OrderRequest merged = basket(1L, 2);
+        merged.getItems().addAll(basket(2L, 1).getItems());
+
+        // When & Then
+        assertEquals(OrderIdempotencyService.fingerprint(merged), OrderIdempotencyService.fingerprint(shuffled));
+        assertNotEquals(OrderIdempotencyService.fingerprint(merged), OrderIdempotencyService.fingerprint(basket(1L, 2)));
+    }
+
+    @Test
+    void placeOrder_ShouldRejectOverlongKey() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotencyService.placeOrder(request, "user@example.com", "k".repeat(256)));
+    }
+
+    private static OrderRequest basket(Long productId, int quantity) {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        OrderRequest basket = new OrderRequest();
+        basket.setItems(new ArrayList<>(List.of(item)));
+        return basket;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.OrderIngestionStatus;
+import com.example.grocerystore.dto.OrderRequest;
+import com.example.grocerystore.dto.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderIngestionService.
+ */
+class OrderIngestionServiceTest {
+
+    private OrderService orderService;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderIngestionService ingestionService;
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ingestionService = new OrderIngestionService(orderService, new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(ingestionService, "enabled", true);
+        ReflectionTestUtils.setField(ingestionService, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(ingestionService, "maxWaitMs", 2000L);
+        when(orderService.createOrder(any(), eq("user@example.com"))).thenAnswer(invocation -> {
+            OrderResponse order = new OrderResponse();
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        when(orderService.screen(anyList()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(), null));
+        ingestionService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestionService.stop();
+    }
+
+    @Test
+    void submit_ShouldGroupCommitOrdersInOneTransaction() throws InterruptedException {
+        // When
+        OrderIngestionStatus first = ingestionService.submit(request(1L, 1), "user@example.com");
+        OrderIngestionStatus second = ingestionService.submit(request(2L, 1), "user@example.com");
+        OrderIngestionStatus third = ingestionService.submit(request(3L, 1), "user@example.com");
+
+        // Then
+        assertEquals(OrderIngestionStatus.State.PENDING, first.getState());
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(first.getReference()).getState());
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(second.getReference()).getState());
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(third.getReference()).getState());
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(3.0, meterRegistry.get("orders.ingestion.confirmed").counter().count());
+        assertEquals(1, meterRegistry.get("orders.ingestion.batch.size").summary().count());
+    }
+
+    @Test
+    void submit_ShouldRejectOnlyTheFailingOrderOfABatch() throws InterruptedException {
+        // Given
+        OrderRequest bad = request(2L, 5);
+        when(orderService.createOrder(same(bad), eq("user@example.com")))
+                .thenThrow(new RuntimeException("Insufficient stock for product ids: [2]"));
+
+        // When
+        OrderIngestionStatus first = ingestionService.submit(request(1L, 1), "user@example.com");
+        OrderIngestionStatus second = ingestionService.submit(bad, "user@example.com");
+        OrderIngestionStatus third = ingestionService.submit(request(3L, 1), "user@example.com");
+
+        // Then
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(first.getReference()).getState());
+        OrderIngestionStatus rejected = awaitCompletion(second.getReference());
+        assertEquals(OrderIngestionStatus.State.REJECTED, rejected.getState());
+        assertEquals("Insufficient stock for product ids: [2]", rejected.getMessage());
+        assertNull(rejected.getOrderId());
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(third.getReference()).getState());
+        assertEquals(1.0, meterRegistry.get("orders.ingestion.rejected").counter().count());
+    }
+
+    @Test
+    void submit_ShouldKeepScreenedOutOrderOutOfTheGroupCommit() throws InterruptedException {
+        // Given
+        OrderRequest bad = request(2L, 5);
+        when(orderService.screen(anyList())).thenAnswer(invocation -> {
+            List<OrderRequest> requests = invocation.getArgument(0);
+            return requests.stream()
+                    .map(request -> request == bad ? "Insufficient stock for product ids: [2]" : null)
+                    .collect(Collectors.toList());
+        });
+
+        // When
+        OrderIngestionStatus first = ingestionService.submit(request(1L, 1), "user@example.com");
+        OrderIngestionStatus second = ingestionService.submit(bad, "user@example.com");
+        OrderIngestionStatus third = ingestionService.submit(request(3L, 1), "user@example.com");
+
+        // Then
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(first.getReference()).getState());
+        assertEquals(OrderIngestionStatus.State.REJECTED, awaitCompletion(second.getReference()).getState());
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(third.getReference()).getState());
+        verify(orderService, never()).createOrder(same(bad), any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void submit_ShouldForgetOldestCompletedStatusesBeyondBound() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(ingestionService, "maxCompletedStatuses", 2);
+
+        // When
+        OrderIngestionStatus first = ingestionService.submit(request(1L, 1), "user@example.com");
+        OrderIngestionStatus second = ingestionService.submit(request(2L, 1), "user@example.com");
+        OrderIngestionStatus third = ingestionService.submit(request(3L, 1), "user@example.com");
+        awaitCompletion(third.getReference());
+
+        // Then
+        assertThrows(RuntimeException.class, () -> ingestionService.getStatus(first.getReference(), "user@example.com"));
+        assertEquals(OrderIngestionStatus.State.CONFIRMED, awaitCompletion(second.getReference()).getState());
+    }
+
+    @Test
+    void evictExpiredStatuses_ShouldForgetOnlyCompletedStatusesPastTtl() throws InterruptedException {
+        // Given
+        OrderIngestionStatus done = ingestionService.submit(request(1L, 1), "user@example.com");
+        awaitCompletion(done.getReference());
+        ReflectionTestUtils.setField(ingestionService, "statusTtlMs", -1L);
+
+        // When
+        ingestionService.evictExpiredStatuses();
+
+        // Then
+        assertThrows(RuntimeException.class, () -> ingestionService.getStatus(done.getReference(), "user@example.com"));
+    }
+
+    @Test
+    void submit_ShouldValidateBeforeQueueing() {
+        // Given
+        OrderRequest empty = new OrderRequest();
+        empty.setItems(Collections.emptyList());
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> ingestionService.submit(empty, "user@example.com"));
+        assertEquals("Order must contain at least one item", exception.getMessage());
+    }
+
+    @Test
+    void submit_ShouldFailFastWhenQueueIsFull() throws InterruptedException {
+        // Given
+        ingestionService.stop();
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(any(), eq("blocked@example.com"))).thenAnswer(invocation -> {
+            release.await();
+            return new OrderResponse();
+        });
+        ingestionService = new OrderIngestionService(orderService, new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(ingestionService, "enabled", true);
+        ReflectionTestUtils.setField(ingestionService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(ingestionService, "maxBatchSize", 1);
+        ingestionService.start();
+
+        // When
+        int accepted = 0;
+        OrderIngestionBusyException exception = null;
+        try {
+            for (int i = 0; i < 3 && exception == null; i++) {
+                try {
+                    ingestionService.submit(request(1L, 1), "blocked@example.com");
+                    accepted++;
+                } catch (OrderIngestionBusyException e) {
+                    exception = e;
+                }
+            }
+        } finally {
+            release.countDown();
+        }
+
+        // Then
+        assertNotNull(exception);
+        assertEquals("Order queue is full, please retry", exception.getMessage());
+        assertTrue(accepted >= 1);
+    }
+
+    @Test
+    void submit_ShouldRejectOrdersAfterStop() {
+        // Given
+        ingestionService.stop();
+
+        // When & Then
+        OrderIngestionBusyException exception = assertThrows(OrderIngestionBusyException.class,
+                () -> ingestionService.submit(request(1L, 1), "user@example.com"));
+        assertEquals("Order ingestion is not running, please retry", exception.getMessage());
+    }
+
+    @Test
+    void getStatus_ShouldHideOtherUsersOrders() {
+        // Given
+        OrderIngestionStatus status = ingestionService.submit(request(1L, 1), "user@example.com");
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> ingestionService.getStatus(status.getReference(), "other@example.com"));
+    }
+
+    private OrderIngestionStatus awaitCompletion(String reference) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        OrderIngestionStatus status = ingestionService.getStatus(reference, "user@example.com");
+        while (status.getState() == OrderIngestionStatus.State.PENDING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = ingestionService.getStatus(reference, "user@example.com");
+        }
+        return status;
+    }
+
+    private static OrderRequest request(Long productId, int quantity) {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        OrderRequest request = new OrderRequest();
+        request.setItems(Collections.singletonList(item));
+        return request;
+    }
+}
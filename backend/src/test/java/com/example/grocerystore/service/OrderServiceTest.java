@@ -0,0 +1,291 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.OrderHistoryPage;
+import com.example.grocerystore.dto.OrderItemResponse;
+import com.example.grocerystore.dto.OrderRequest;
+import com.example.grocerystore.dto.OrderResponse;
+import com.example.grocerystore.model.Order;
+import com.example.grocerystore.model.OrderItem;
+import com.example.grocerystore.model.Product;
+import com.example.grocerystore.model.User;
+import com.example.grocerystore.repository.OrderRepository;
+import com.example.grocerystore.repository.ShardedOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderService.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ShardedOrderRepository shardedOrderRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private FlashSaleService flashSaleService;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("user@example.com");
+    }
+
+    @Test
+    void createOrder_ShouldLoadAllProductsInOneCall() {
+        // Given
+        Map<Long, Product> products = new LinkedHashMap<>();
+        products.put(1L, new Product(1L, "Apples", 2.0, 100));
+        products.put(2L, new Product(2L, "Milk", 4.5, 75));
+        when(userService.findByEmail("user@example.com")).thenReturn(testUser);
+        when(flashSaleService.reserve(anyMap())).thenReturn(FlashSaleService.Reservation.none());
+        when(productService.reserveStock(anyMap())).thenReturn(Collections.emptyList());
+        when(productService.getProductsByIds(anyCollection())).thenReturn(products);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        OrderResponse order = orderService.createOrder(request(item(2L, 2), item(1L, 3)), "user@example.com");
+
+        // Then
+        assertEquals(15.0, order.getTotalAmount());
+        assertEquals(2, order.getOrderItems().size());
+        assertEquals("Milk", order.getOrderItems().get(0).getProductName());
+        verify(productService, times(1)).getProductsByIds(anyCollection());
+        verify(productService, never()).getProductById(any());
+    }
+
+    @Test
+    void createOrder_ShouldReserveCombinedQuantityPerProduct() {
+        // Given
+        Map<Long, Product> products = new LinkedHashMap<>();
+        products.put(1L, new Product(1L, "Apples", 2.0, 100));
+        when(userService.findByEmail("user@example.com")).thenReturn(testUser);
+        when(flashSaleService.reserve(anyMap())).thenReturn(FlashSaleService.Reservation.none());
+        when(productService.reserveStock(anyMap())).thenReturn(Collections.emptyList());
+        when(productService.getProductsByIds(anyCollection())).thenReturn(products);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderService.createOrder(request(item(1L, 2), item(1L, 3)), "user@example.com");
+
+        // Then
+        verify(productService).reserveStock(Collections.singletonMap(1L, 5));
+    }
+
+    @Test
+    void createOrder_WithInsufficientStock_ShouldThrowWithoutSaving() {
+        // Given
+        Map<Long, Product> products = new LinkedHashMap<>();
+        products.put(1L, new Product(1L, "Apples", 2.0, 0));
+        products.put(2L, new Product(2L, "Milk", 4.5, 1));
+        when(userService.findByEmail("user@example.com")).thenReturn(testUser);
+        when(flashSaleService.reserve(anyMap())).thenReturn(FlashSaleService.Reservation.none());
+        when(productService.reserveStock(anyMap())).thenReturn(Arrays.asList(1L, 2L));
+        when(productService.getProductsByIds(anyCollection())).thenReturn(products);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> orderService.createOrder(request(item(1L, 1), item(2L, 5)), "user@example.com"));
+
+        assertEquals("Insufficient stock for product ids: [1, 2]", exception.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_WithFlashSaleProduct_ShouldSkipDatabaseDecrementAndTagItem() {
+        // Given
+        Map<Long, Product> products = new LinkedHashMap<>();
+        products.put(1L, new Product(1L, "Eggs", 5.99, 60));
+        products.put(2L, new Product(2L, "Milk", 4.5, 75));
+        when(userService.findByEmail("user@example.com")).thenReturn(testUser);
+        when(flashSaleService.reserve(anyMap())).thenReturn(new FlashSaleService.Reservation(
+            Collections.singletonMap(1L, 42L)));
+        when(productService.reserveStock(anyMap())).thenReturn(Collections.emptyList());
+        when(productService.getProductsByIds(anyCollection())).thenReturn(products);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderService.createOrder(request(item(1L, 2), item(2L, 1)), "user@example.com");
+        ArgumentCaptor<Order> saved = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(saved.capture());
+        Order order = saved.getValue();
+
+        // Then
+        verify(productService).reserveStock(Collections.singletonMap(2L, 1));
+        assertEquals(42L, order.getOrderItems().get(0).getFlashSaleId());
+        assertNull(order.getOrderItems().get(1).getFlashSaleId());
+    }
+
+    @Test
+    void createOrder_WithNonPositiveQuantity_ShouldThrowException() {
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> orderService.createOrder(request(item(1L, 0)), "user@example.com"));
+
+        assertTrue(exception.getMessage().contains("Invalid quantity"));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_WithEmptyBasket_ShouldThrowException() {
+        // When & Then
+        assertThrows(RuntimeException.class,
+            () -> orderService.createOrder(request(), "user@example.com"));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void screen_ShouldRejectOrdersStockCannotCoverInTurn() {
+        // Given
+        when(productService.getStockLevels(anyCollection())).thenReturn(new LinkedHashMap<>(Map.of(1L, 5, 2L, 0)));
+        when(flashSaleService.isActive(anyLong())).thenReturn(false);
+        when(flashSaleService.isActive(2L)).thenReturn(true);
+
+        // When
+        List<String> rejections = orderService.screen(Arrays.asList(
+                request(item(1L, 3)),
+                request(item(1L, 3)),
+                request(item(2L, 4), item(1L, 2)),
+                request(item(9L, 1))));
+
+        // Then
+        assertNull(rejections.get(0));
+        assertEquals("Insufficient stock for product ids: [1]", rejections.get(1));
+        assertNull(rejections.get(2));
+        assertEquals("Products not found with ids: [9]", rejections.get(3));
+    }
+
+    @Test
+    void getOrderHistory_ShouldAttachItemsAndReturnCursor() {
+        // Given
+        LocalDateTime now = LocalDateTime.of(2025, 7, 1, 12, 0);
+        List<OrderResponse> rows = new ArrayList<>(Arrays.asList(
+            new OrderResponse(3L, now, 10.0),
+            new OrderResponse(2L, now.minusDays(1), 20.0),
+            new OrderResponse(1L, now.minusDays(2), 30.0)));
+        when(orderRepository.findHistory(eq("user@example.com"), any(Pageable.class))).thenReturn(rows);
+        when(orderRepository.findItemsByOrderIds(argThat(ids -> ids.size() == 2 && ids.containsAll(Arrays.asList(3L, 2L)))))
+            .thenReturn(Arrays.asList(
+                new OrderItemResponse(3L, 10L, 1L, "Apples", 2, 5.0),
+                new OrderItemResponse(2L, 11L, 2L, "Milk", 4, 5.0)));
+
+        // When
+        OrderHistoryPage page = orderService.getOrderHistory("user@example.com", null, 2);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertEquals("Apples", page.getItems().get(0).getOrderItems().get(0).getProductName());
+        assertEquals("Milk", page.getItems().get(1).getOrderItems().get(0).getProductName());
+        assertNotNull(page.getNext());
+        OrderResponse position = OrderService.decodeHistoryCursor(page.getNext());
+        assertEquals(2L, position.getId());
+        assertEquals(now.minusDays(1), position.getOrderDate());
+        verify(orderRepository).findHistory(eq("user@example.com"), eq(PageRequest.of(0, 3)));
+    }
+
+    @Test
+    void getOrderHistory_WithCursor_ShouldContinueAfterPosition() {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2025, 7, 1, 12, 0);
+        String cursor = OrderService.historyCursorAfter(new OrderResponse(5L, date, 1.0));
+        when(orderRepository.findHistoryBefore(eq("user@example.com"), eq(date), eq(5L), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+
+        // When
+        OrderHistoryPage page = orderService.getOrderHistory("user@example.com", cursor, 20);
+
+        // Then
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNext());
+        verify(orderRepository, never()).findItemsByOrderIds(anyCollection());
+    }
+
+    @Test
+    void getOrderHistory_WithBadCursor_ShouldThrowException() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> orderService.getOrderHistory("user@example.com", "not-a-cursor", 20));
+        assertEquals("Malformed cursor", exception.getMessage());
+    }
+
+    @Test
+    void getOrderById_ShouldMapOwnOrderToResponse() {
+        // Given
+        Order order = new Order(5L, LocalDateTime.of(2025, 7, 1, 12, 0), 5.98, testUser, new ArrayList<>());
+        order.getOrderItems().add(new OrderItem(9L, order, new Product(1L, "Apples", 2.99, 100), 2, 2.99, null));
+        when(orderRepository.findWithItemsById(5L)).thenReturn(Optional.of(order));
+
+        // When
+        OrderResponse response = orderService.getOrderById(5L, "user@example.com");
+
+        // Then
+        assertEquals(5L, response.getId());
+        assertEquals(1, response.getOrderItems().size());
+        assertEquals("Apples", response.getOrderItems().get(0).getProductName());
+        assertEquals(1L, response.getOrderItems().get(0).getProductId());
+    }
+
+    @Test
+    void getOrderById_WithOtherUsersOrder_ShouldDenyAccess() {
+        // Given
+        Order order = new Order(5L, LocalDateTime.now(), 1.0, testUser, new ArrayList<>());
+        when(orderRepository.findWithItemsById(5L)).thenReturn(Optional.of(order));
+
+        // When & Then
+        assertThrows(AccessDeniedException.class, () -> orderService.getOrderById(5L, "other@example.com"));
+    }
+
+    static OrderRequest request(OrderRequest.OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setItems(new ArrayList<>(Arrays.asList(items)));
+        return request;
+    }
+
+    static OrderRequest.OrderItemRequest item(Long productId, int quantity) {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
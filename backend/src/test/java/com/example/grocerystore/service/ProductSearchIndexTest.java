@@ -0,0 +1,103 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductSearchIndex.
+ */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = ProductSearchIndex.build(Arrays.asList(
+            new Product(1L, "Apples", 2.99, 100),
+            new Product(2L, "Pineapple Juice", 3.49, 20),
+            new Product(3L, "Chicken Breast", 12.99, 30),
+            new Product(4L, "Tomatoes", 3.99, 90),
+            new Product(5L, "Apple", 1.49, 10)
+        ));
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsIgnoringCase() {
+        // When
+        List<String> names = names(index.search("APPL"));
+
+        // Then
+        assertEquals(Arrays.asList("Apple", "Apples", "Pineapple Juice"), names);
+    }
+
+    @Test
+    void search_ShouldRankWordStartAboveInnerMatch() {
+        // Given a shorter name that only matches inside a word
+        ProductSearchIndex juices = ProductSearchIndex.build(Arrays.asList(
+            new Product(1L, "Verjuice", 4.99, 10),
+            new Product(2L, "Orange Juice Carton", 2.49, 40)
+        ));
+
+        // When
+        List<String> names = names(juices.search("juice"));
+
+        // Then
+        assertEquals(Arrays.asList("Orange Juice Carton", "Verjuice"), names);
+    }
+
+    @Test
+    void search_ShouldRankLaterWordStartAboveInnerMatch() {
+        // Given a name whose first occurrence is inside a word and a later one starts a word
+        ProductSearchIndex teas = ProductSearchIndex.build(Arrays.asList(
+            new Product(1L, "Steamed Buns", 3.99, 10),
+            new Product(2L, "Instead Teabags", 2.49, 40)
+        ));
+
+        // When
+        List<String> names = names(teas.search("tea"));
+
+        // Then
+        assertEquals(Arrays.asList("Instead Teabags", "Steamed Buns"), names);
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldScanNames() {
+        // When
+        List<String> names = names(index.search("to"));
+
+        // Then
+        assertEquals(Arrays.asList("Tomatoes"), names);
+    }
+
+    @Test
+    void search_WithTypo_ShouldReturnFuzzyMatches() {
+        // When
+        List<String> names = names(index.search("tomatos"));
+
+        // Then
+        assertEquals(Arrays.asList("Tomatoes"), names);
+    }
+
+    @Test
+    void search_WithUnrelatedQuery_ShouldReturnNothing() {
+        // When & Then
+        assertTrue(index.search("zucchini").isEmpty());
+    }
+
+    @Test
+    void search_WithEmptyQuery_ShouldReturnAllProducts() {
+        // When & Then
+        assertEquals(5, index.search("").size());
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).collect(Collectors.toList());
+    }
+}
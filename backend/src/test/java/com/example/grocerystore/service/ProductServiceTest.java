@@ -1,21 +1,30 @@
 package com.example.grocerystore.service;
 
+import com.example.grocerystore.dto.ProductPage;
 import com.example.grocerystore.model.Product;
 import com.example.grocerystore.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -27,13 +36,20 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private FlashSaleService flashSaleService;
+
+    private ProductCatalog productCatalog;
+
     private ProductService productService;
 
     private Product testProduct;
 
     @BeforeEach
     void setUp() {
+        productCatalog = new ProductCatalog(productRepository);
+        productService = new ProductService(productRepository, productCatalog, flashSaleService);
+
         testProduct = new Product();
         testProduct.setId(1L);
         testProduct.setName("Test Product");
@@ -55,30 +71,136 @@ class ProductServiceTest {
         verify(productRepository).findAll();
     }
 
+    @Test
+    void getAllProducts_WhenCatalogLoaded_ShouldNotQueryRepositoryAgain() {
+        // Given
+        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct));
+
+        // When
+        productService.getAllProducts();
+        List<Product> actualProducts = productService.getAllProducts();
+
+        // Then
+        assertEquals(1, actualProducts.size());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void getProductPage_ShouldFollowCursorToLastPage() {
+        // Given
+        Product cheap = new Product(2L, "Bananas", 1.99, 150);
+        Product pricey = new Product(3L, "Chicken Breast", 12.99, 30);
+        when(productRepository.findAll()).thenReturn(Arrays.asList(pricey, testProduct, cheap));
+
+        // When
+        ProductPage first = productService.getProductPage(ProductSort.PRICE, null, 2);
+        ProductPage second = productService.getProductPage(ProductSort.PRICE, first.getNext(), 2);
+
+        // Then
+        assertEquals(Arrays.asList(cheap, testProduct), first.getItems());
+        assertNotNull(first.getNext());
+        assertEquals(Arrays.asList(pricey), second.getItems());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    void getProductPageFromDatabase_WithCursor_ShouldUseKeysetQuery() {
+        // Given
+        String cursor = ProductSort.NAME.cursorAfter(testProduct);
+        when(productRepository.findPageAfterName(eq("test product"), eq(1L), any(Pageable.class)))
+            .thenReturn(Collections.emptyList());
+
+        // When
+        ProductPage page = productService.getProductPageFromDatabase(ProductSort.NAME, cursor, 20);
+
+        // Then
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNext());
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void getProductPage_ByName_ShouldIgnoreCase() {
+        // Given
+        Product apple = new Product(2L, "apple", 1.99, 150);
+        Product banana = new Product(3L, "BANANA", 0.99, 30);
+        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct, banana, apple));
+
+        // When
+        ProductPage first = productService.getProductPage(ProductSort.NAME, null, 2);
+        ProductPage second = productService.getProductPage(ProductSort.NAME, first.getNext(), 2);
+
+        // Then
+        assertEquals(Arrays.asList(apple, banana), first.getItems());
+        assertEquals(Arrays.asList(testProduct), second.getItems());
+    }
+
+    @Test
+    void getProductPage_WithCursorForOtherSort_ShouldThrowException() {
+        // Given
+        String cursor = ProductSort.NAME.cursorAfter(testProduct);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+            () -> productService.getProductPage(ProductSort.PRICE, cursor, 20));
+    }
+
     @Test
     void getProductById_WhenProductExists_ShouldReturnProduct() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct));
 
         // When
         Product actualProduct = productService.getProductById(1L);
 
         // Then
         assertEquals(testProduct, actualProduct);
-        verify(productRepository).findById(1L);
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
     void getProductById_WhenProductNotExists_ShouldThrowException() {
         // Given
-        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(productRepository.findAll()).thenReturn(Collections.emptyList());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, 
             () -> productService.getProductById(1L));
         
         assertTrue(exception.getMessage().contains("Product not found"));
-        verify(productRepository).findById(1L);
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getProductsByIds_WhenSomeMissing_ShouldReportAllMissingIds() {
+        // Given
+        when(productRepository.findByIdInOrderByIdAsc(anyCollection())).thenReturn(Arrays.asList(testProduct));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> productService.getProductsByIds(Arrays.asList(7L, 1L, 3L)));
+
+        assertEquals("Products not found with ids: [3, 7]", exception.getMessage());
+        verify(productRepository, times(1)).findByIdInOrderByIdAsc(anyCollection());
+    }
+
+    @Test
+    void reserveStock_ShouldDecrementInIdOrderAndReportShortfalls() {
+        // Given
+        Map<Long, Integer> quantities = new HashMap<>();
+        quantities.put(9L, 1);
+        quantities.put(2L, 4);
+        when(productRepository.decrementStock(2L, 4)).thenReturn(0);
+        when(productRepository.decrementStock(9L, 1)).thenReturn(1);
+
+        // When
+        List<Long> insufficient = productService.reserveStock(quantities);
+
+        // Then
+        assertEquals(Arrays.asList(2L), insufficient);
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).decrementStock(2L, 4);
+        inOrder.verify(productRepository).decrementStock(9L, 1);
     }
 
     @Test
@@ -86,6 +208,22 @@ class ProductServiceTest {
         // Given
         String searchTerm = "test";
         List<Product> expectedProducts = Arrays.asList(testProduct);
+        when(productRepository.findAll()).thenReturn(expectedProducts);
+
+        // When
+        List<Product> actualProducts = productService.searchProductsByName(searchTerm);
+
+        // Then
+        assertEquals(expectedProducts, actualProducts);
+        verify(productRepository, never()).findByNameContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    void searchProductsByName_WhenIndexDisabled_ShouldQueryRepository() {
+        // Given
+        String searchTerm = "test";
+        List<Product> expectedProducts = Arrays.asList(testProduct);
+        ReflectionTestUtils.setField(productService, "searchIndexEnabled", false);
         when(productRepository.findByNameContainingIgnoreCase(searchTerm))
             .thenReturn(expectedProducts);
 
@@ -95,6 +233,7 @@ class ProductServiceTest {
         // Then
         assertEquals(expectedProducts, actualProducts);
         verify(productRepository).findByNameContainingIgnoreCase(searchTerm);
+        verify(productRepository, never()).findAll();
     }
 
     @Test
@@ -110,6 +249,21 @@ class ProductServiceTest {
         verify(productRepository).save(testProduct);
     }
 
+    @Test
+    void createProduct_WhenCatalogLoaded_ShouldPublishToCatalog() {
+        // Given
+        when(productRepository.findAll()).thenReturn(Collections.emptyList());
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        productService.getAllProducts();
+
+        // When
+        productService.createProduct(testProduct);
+
+        // Then
+        assertEquals(testProduct, productService.getProductById(1L));
+        verify(productRepository, times(1)).findAll();
+    }
+
     @Test
     void updateProduct_WhenProductExists_ShouldUpdateAndReturnProduct() {
         // Given
@@ -145,6 +299,73 @@ class ProductServiceTest {
         verify(productRepository).delete(testProduct);
     }
 
+    @Test
+    void updateProduct_ShouldChangeCatalogAndProductETags() {
+        // Given
+        Product other = new Product(2L, "Bananas", 1.99, 150);
+        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct, other));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        String catalogTag = productCatalog.catalogETag();
+        String productTag = productService.getProductETag(1L);
+        String otherTag = productService.getProductETag(2L);
+
+        // When
+        productService.updateProduct(1L, new Product(null, "Updated Product", 19.99, 50));
+
+        // Then
+        assertNotEquals(catalogTag, productCatalog.catalogETag());
+        assertNotEquals(productTag, productService.getProductETag(1L));
+        assertEquals(otherTag, productService.getProductETag(2L));
+        assertNull(productService.getProductETag(99L));
+    }
+
+    @Test
+    void getTaggedProduct_ShouldTakeBodyAndTagFromSameSnapshot() {
+        // Given
+        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        TaggedProduct before = productService.getTaggedProduct(1L);
+
+        // When
+        productService.updateProduct(1L, new Product(null, "Updated Product", 19.99, 50));
+        TaggedProduct after = productService.getTaggedProduct(1L);
+
+        // Then
+        assertEquals("Test Product", before.getProduct().getName());
+        assertEquals("Updated Product", after.getProduct().getName());
+        assertNotEquals(before.getETag(), after.getETag());
+        assertEquals(productService.getProductETag(1L), after.getETag());
+        assertThrows(RuntimeException.class, () -> productService.getTaggedProduct(99L));
+    }
+
+    @Test
+    void deleteProduct_WhenCatalogLoaded_ShouldRemoveFromCatalog() {
+        // Given
+        when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        productService.getAllProducts();
+
+        // When
+        productService.deleteProduct(1L);
+
+        // Then
+        assertTrue(productService.getAllProducts().isEmpty());
+    }
+
+    @Test
+    void updateProduct_WhenFlashSaleActive_ShouldRejectStockChange() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(flashSaleService.isActive(1L)).thenReturn(true);
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+            () -> productService.updateProduct(1L, new Product(null, "Test Product", 9.99, 500)));
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
     @Test
     void deleteProduct_WhenProductNotExists_ShouldThrowException() {
         // Given
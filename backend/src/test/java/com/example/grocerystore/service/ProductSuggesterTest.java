@@ -0,0 +1,66 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductSuggester.
+ */
+class ProductSuggesterTest {
+
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = ProductSuggester.build(Arrays.asList(
+            new Product(1L, "Bread", 3.49, 50),
+            new Product(2L, "Chicken Breast", 12.99, 30),
+            new Product(3L, "Brown Rice", 8.99, 40),
+            new Product(4L, "Bananas", 1.99, 150)
+        ));
+    }
+
+    @Test
+    void suggest_ShouldRankWholeNamePrefixBeforeLaterWord() {
+        // When
+        List<String> names = names(suggester.suggest("BRE", 10));
+
+        // Then
+        assertEquals(Arrays.asList("Bread", "Chicken Breast"), names);
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit() {
+        // When
+        List<String> names = names(suggester.suggest("b", 2));
+
+        // Then
+        assertEquals(Arrays.asList("Bananas", "Bread"), names);
+    }
+
+    @Test
+    void suggest_ShouldNotRepeatProductsMatchingSeveralWords() {
+        // When
+        List<String> names = names(suggester.suggest("r", 10));
+
+        // Then
+        assertEquals(Arrays.asList("Brown Rice"), names);
+    }
+
+    @Test
+    void suggest_WithBlankPrefix_ShouldReturnNothing() {
+        // When & Then
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.grocerystore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StripedStockCounter.
+ */
+class StripedStockCounterTest {
+
+    @Test
+    void tryTake_ShouldPoolStripesWhenNoneHasEnough() {
+        // Given - 10 units spread over 4 stripes
+        StripedStockCounter counter = new StripedStockCounter(4, 10);
+
+        // When & Then
+        assertTrue(counter.tryTake(9));
+        assertEquals(1, counter.available());
+        assertFalse(counter.tryTake(2));
+        assertEquals(1, counter.available());
+    }
+
+    @Test
+    void add_ShouldReturnUnits() {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(2, 0);
+
+        // When
+        counter.add(3);
+
+        // Then
+        assertTrue(counter.tryTake(3));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void tryTake_UnderContention_ShouldNeverOversell() throws Exception {
+        // Given
+        StripedStockCounter counter = new StripedStockCounter(8, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // When - 16 threads each try to take 100 single units
+        for (int t = 0; t < 16; t++) {
+            results.add(executor.submit(() -> {
+                int taken = 0;
+                for (int i = 0; i < 100; i++) {
+                    if (counter.tryTake(1)) {
+                        taken++;
+                    }
+                }
+                return taken;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1000, total);
+        assertEquals(0, counter.available());
+    }
+}
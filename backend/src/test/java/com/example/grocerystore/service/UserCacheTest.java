@@ -0,0 +1,148 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserCache.
+ */
+class UserCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private AtomicInteger loads;
+    private Supplier<Optional<User>> loader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(meterRegistry);
+        userCache.init();
+        loads = new AtomicInteger();
+        loader = () -> {
+            loads.incrementAndGet();
+            return Optional.of(user(1L, "user@example.com"));
+        };
+    }
+
+    @Test
+    void getByEmail_ShouldLoadOnceAndCountHitsAndMisses() {
+        // When
+        User first = userCache.getByEmail("user@example.com", loader).orElseThrow();
+        User second = userCache.getByEmail("user@example.com", loader).orElseThrow();
+        User byId = userCache.getById(1L, loader).orElseThrow();
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals("user@example.com", second.getEmail());
+        assertEquals("ROLE_USER", byId.getRoles().iterator().next().getName());
+        assertNotSame(first, second);
+        assertEquals(2.0, meterRegistry.get("users.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("users.cache.misses").counter().count());
+    }
+
+    @Test
+    void getByEmail_ShouldReturnCopiesCallersCannotCorrupt() {
+        // Given
+        userCache.getByEmail("user@example.com", loader).orElseThrow().setName("Changed");
+
+        // When
+        User cached = userCache.getByEmail("user@example.com", loader).orElseThrow();
+
+        // Then
+        assertEquals("Test User", cached.getName());
+    }
+
+    @Test
+    void evict_ShouldForceReloadByEmailAndId() {
+        // Given
+        userCache.getByEmail("user@example.com", loader);
+
+        // When
+        userCache.evict(1L, "user@example.com");
+        userCache.getById(1L, loader);
+        userCache.getByEmail("user@example.com", loader);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getByEmail_ShouldNotCacheLoadThatOverlappedEviction() {
+        // Given a load that read the old row before an update committed and evicted it
+        Supplier<Optional<User>> staleLoader = () -> {
+            loads.incrementAndGet();
+            userCache.evict(1L, "user@example.com");
+            return Optional.of(user(1L, "user@example.com"));
+        };
+
+        // When
+        userCache.getByEmail("user@example.com", staleLoader);
+        userCache.getByEmail("user@example.com", loader);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getByEmail_AfterTtl_ShouldReload() {
+        // Given
+        ReflectionTestUtils.setField(userCache, "ttlMs", -1L);
+
+        // When
+        userCache.getByEmail("user@example.com", loader);
+        userCache.getByEmail("user@example.com", loader);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getByEmail_ShouldNotCacheMissingUsers() {
+        // When
+        userCache.getByEmail("missing@example.com", Optional::empty);
+        Optional<User> later = userCache.getByEmail("missing@example.com", loader);
+
+        // Then
+        assertTrue(later.isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getById_ShouldStayWithinMaxSize() {
+        // Given
+        ReflectionTestUtils.setField(userCache, "maxSize", 4);
+
+        // When
+        for (long id = 1; id <= 20; id++) {
+            long userId = id;
+            userCache.getById(userId, () -> Optional.of(user(userId, "user" + userId + "@example.com")));
+        }
+
+        // Then
+        Map<?, ?> byId = (Map<?, ?>) ReflectionTestUtils.getField(userCache, "byId");
+        assertTrue(byId.size() <= 4);
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Test User");
+        user.setEmail(email);
+        user.setTokenVersion(0);
+        user.setRoles(Collections.singleton(new Role(1L, "ROLE_USER")));
+        return user;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.grocerystore.service;
+
+import com.example.grocerystore.dto.UserImportResult;
+import com.example.grocerystore.model.Role;
+import com.example.grocerystore.model.User;
+import com.example.grocerystore.repository.RoleRepository;
+import com.example.grocerystore.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for UserImportService against the embedded database.
+ * Not transactional, so each chunk really commits on its own.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "users.import.chunk-size=100"
+})
+@Import({UserImportService.class, RoleRegistry.class, UserImportServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTest {
+
+    private static final PasswordEncoder ENCODER = new BCryptPasswordEncoder(4);
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return ENCODER;
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        if (roleRepository.findByName("ROLE_USER").isEmpty()) {
+            roleRepository.save(new Role("ROLE_USER"));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsers_ShouldBatchInsertEveryChunk() throws Exception {
+        // Given
+        String hash = ENCODER.encode("legacy-password");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            ndjson.append("{\"name\":\"Legacy ").append(i).append("\",\"email\":\"legacy").append(i)
+                  .append("@example.com\",\"address\":\"1 Old Road\",\"contactNumber\":\"5550001111\",")
+                  .append("\"passwordHash\":\"").append(hash).append("\"}\n");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        UserImportResult result = userImportService.importUsers(stream(ndjson.toString()));
+
+        // Then
+        assertEquals(250, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertEquals(250, userRepository.count());
+        // Far fewer statements than the 500 rows written to users and user_roles
+        assertTrue(statistics.getPrepareStatementCount() < 50,
+            "prepared " + statistics.getPrepareStatementCount() + " statements");
+        User imported = userRepository.findByEmail("legacy7@example.com").orElseThrow();
+        assertEquals(hash, imported.getPassword());
+        assertEquals("ROLE_USER", imported.getRoles().iterator().next().getName());
+    }
+
+    @Test
+    void importUsers_ShouldSkipExistingEmailsAndReportInvalidRecords() throws Exception {
+        // Given
+        User existing = new User();
+        existing.setName("Existing");
+        existing.setEmail("taken@example.com");
+        existing.setPassword("secret");
+        existing.setAddress("2 New Road");
+        existing.setContactNumber("5550002222");
+        existing.setRoles(Collections.emptySet());
+        userRepository.save(existing);
+
+        String json = "["
+            + "{\"name\":\"Taken\",\"email\":\"taken@example.com\",\"address\":\"a\",\"contactNumber\":\"1\",\"password\":\"pw\"},"
+            + "{\"name\":\"Plain\",\"email\":\"plain@example.com\",\"address\":\"a\",\"contactNumber\":\"1\",\"password\":\"pw\"},"
+            + "{\"name\":\"Twice\",\"email\":\"plain@example.com\",\"address\":\"a\",\"contactNumber\":\"1\",\"password\":\"pw\"},"
+            + "{\"name\":\"No Address\",\"email\":\"no-address@example.com\",\"contactNumber\":\"1\",\"password\":\"pw\"},"
+            + "{\"name\":\"Bad Hash\",\"email\":\"bad@example.com\",\"address\":\"a\",\"contactNumber\":\"1\",\"passwordHash\":\"md5\"}"
+            + "]";
+
+        // When
+        UserImportResult result = userImportService.importUsers(stream(json));
+
+        // Then
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getSkipped());
+        assertEquals(2, result.getFailed());
+        assertEquals("4: name, email, address and contactNumber are required", result.getErrors().get(0));
+        assertEquals("5: passwordHash must be a BCrypt hash", result.getErrors().get(1));
+        User plain = userRepository.findByEmail("plain@example.com").orElseThrow();
+        assertTrue(ENCODER.matches("pw", plain.getPassword()));
+    }
+
+    @Test
+    void importUsers_ShouldReportCommittedChunksWhenStreamBreaksOff() throws Exception {
+        // Given
+        String hash = ENCODER.encode("legacy-password");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 150; i++) {
+            ndjson.append("{\"name\":\"Legacy ").append(i).append("\",\"email\":\"legacy").append(i)
+                  .append("@example.com\",\"address\":\"1 Old Road\",\"contactNumber\":\"5550001111\",")
+                  .append("\"passwordHash\":\"").append(hash).append("\"}\n");
+        }
+        ndjson.append("{\"name\":\"Broken\",\"email\":");
+
+        // When
+        UserImportResult result = userImportService.importUsers(stream(ndjson.toString()));
+
+        // Then
+        assertEquals(100, result.getImported());
+        assertEquals(100, userRepository.count());
+        assertNotNull(result.getAbortReason());
+        assertTrue(result.getAbortReason().startsWith("stopped after record 150: "), result.getAbortReason());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -5,6 +5,7 @@ const AdminDashboard = () => {
   const [activeTab, setActiveTab] = useState('products');
   const [products, setProducts] = useState([]);
   const [users, setUsers] = useState([]);
+  const [nextUser, setNextUser] = useState(null);
   const [searchTerm, setSearchTerm] = useState('');
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
@@ -91,11 +92,15 @@ const AdminDashboard = () => {
   const handleUserSearch = async (e) => {
     e.preventDefault();
     if (!searchTerm.trim()) return;
-    
+    fetchUsers();
+  };
+
+  const fetchUsers = async (after) => {
     setLoading(true);
     try {
-      const response = await adminUserAPI.search(searchTerm);
-      setUsers(response.data);
+      const response = await adminUserAPI.search(searchTerm, after);
+      setUsers(previous => after ? [...previous, ...response.data.items] : response.data.items);
+      setNextUser(response.data.next);
     } catch (err) {
       setError('Failed to search users');
     } finally {
@@ -240,7 +245,7 @@ const AdminDashboard = () => {
           <form onSubmit={handleUserSearch} className="search-form">
             <input
               type="text"
-              placeholder="Search customers by name..."
+              placeholder="Search customers by name, email or phone..."
               value={searchTerm}
               onChange={(e) => setSearchTerm(e.target.value)}
               className="search-input"
@@ -274,6 +279,11 @@ const AdminDashboard = () => {
                   ))}
                 </tbody>
               </table>
+              {nextUser && (
+                <button className="btn btn-secondary" disabled={loading} onClick={() => fetchUsers(nextUser)}>
+                  Load more customers
+                </button>
+              )}
             </div>
           )}
         </div>
@@ -3,6 +3,7 @@ import { orderAPI } from '../services/api';
 
 const OrdersPage = () => {
   const [orders, setOrders] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
 
@@ -10,10 +11,11 @@ const OrdersPage = () => {
     fetchOrders();
   }, []);
 
-  const fetchOrders = async () => {
+  const fetchOrders = async (cursor) => {
     try {
-      const response = await orderAPI.getHistory();
-      setOrders(response.data);
+      const response = await orderAPI.getHistory(cursor);
+      setOrders(previous => cursor ? [...previous, ...response.data.items] : response.data.items);
+      setNextCursor(response.data.next);
     } catch (err) {
       setError('Failed to load orders');
     } finally {
@@ -61,7 +63,7 @@ const OrdersPage = () => {
                 <h4>Items:</h4>
                 {order.orderItems.map(item => (
                   <div key={item.id} className="order-item">
-                    <span className="item-name">{item.product.name}</span>
+                    <span className="item-name">{item.productName}</span>
                     <span className="item-details">
                       {item.quantity} x ${item.price.toFixed(2)} = ${(item.quantity * item.price).toFixed(2)}
                     </span>
@@ -70,6 +72,11 @@ const OrdersPage = () => {
               </div>
             </div>
           ))}
+          {nextCursor && (
+            <button className="btn btn-secondary" onClick={() => fetchOrders(nextCursor)}>
+              Load more orders
+            </button>
+          )}
         </div>
       )}
     </div>
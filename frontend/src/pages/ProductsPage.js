@@ -6,6 +6,7 @@ import { useAuth } from '../context/AuthContext';
 const ProductsPage = () => {
   const [products, setProducts] = useState([]);
   const [searchTerm, setSearchTerm] = useState('');
+  const [suggestions, setSuggestions] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   
@@ -45,6 +46,22 @@ const ProductsPage = () => {
     }
   };
 
+  const handleSearchChange = async (e) => {
+    const value = e.target.value;
+    setSearchTerm(value);
+    if (!value.trim()) {
+      setSuggestions([]);
+      return;
+    }
+
+    try {
+      const response = await productAPI.suggest(value);
+      setSuggestions(response.data);
+    } catch (err) {
+      setSuggestions([]);
+    }
+  };
+
   const handleAddToCart = (product) => {
     addToCart(product);
     alert(`${product.name} added to cart!`);
@@ -67,9 +84,15 @@ const ProductsPage = () => {
             type="text"
             placeholder="Search products..."
             value={searchTerm}
-            onChange={(e) => setSearchTerm(e.target.value)}
+            onChange={handleSearchChange}
             className="search-input"
+            list="product-suggestions"
           />
+          <datalist id="product-suggestions">
+            {suggestions.map((product) => (
+              <option key={product.id} value={product.name} />
+            ))}
+          </datalist>
           <button type="submit" className="btn btn-primary">Search</button>
           {searchTerm && (
             <button type="button" onClick={clearSearch} className="btn btn-secondary">
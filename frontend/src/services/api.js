@@ -52,6 +52,8 @@ export const productAPI = {
   getAll: () => api.get('/products'),
   getById: (id) => api.get(`/products/${id}`),
   search: (name) => api.get(`/products/search?name=${encodeURIComponent(name)}`),
+  suggest: (prefix, limit = 10) =>
+    api.get(`/products/suggest?prefix=${encodeURIComponent(prefix)}&limit=${limit}`),
 };
 
 // Admin Product API calls
@@ -64,13 +66,15 @@ export const adminProductAPI = {
 
 // Admin User API calls
 export const adminUserAPI = {
-  search: (name) => api.get(`/admin/users/search?name=${encodeURIComponent(name)}`),
+  search: (q, after, limit = 20) =>
+    api.get('/admin/users/search', { params: { q, after, limit } }),
 };
 
 // Order API calls
 export const orderAPI = {
   create: (orderData) => api.post('/orders', orderData),
-  getHistory: () => api.get('/orders/my-history'),
+  getHistory: (cursor, limit = 20) =>
+    api.get('/orders/my-history', { params: { cursor, limit } }),
   getById: (id) => api.get(`/orders/${id}`),
 };
 